@@ -0,0 +1,150 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.IllegalPluginAccessException;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+
+/**
+ * This abstract class is used to create custom items whose click handler runs off the main thread.
+ * The {@link InventoryClickEvent} is cancelled immediately and an immutable {@link ClickSnapshot} of the click
+ * is passed to {@link #onAsyncClick(ClickSnapshot)} on the click executor of the {@link InventoryApiRegister}.
+ * The returned {@link ClickResult} is applied on the main thread in the next tick, unless the plugin was disabled.
+ * If the player closed or switched the inventory in the meantime, the result is passed to {@link #onStale(ClickSnapshot, ClickResult)}
+ * instead, so handlers with side effects can still complete the player side of the click.
+ * Use this class for handlers that need database access, like purchases or clan invites.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see CustomItem
+ * @see ClickSnapshot
+ * @see ClickResult
+ * @see InventoryApiRegister#getClickExecutor()
+ */
+public abstract class AsyncCustomItem extends CustomItem {
+
+    /**
+     * Creates a new AsyncCustomItem with a slot and an {@link ItemStack}.
+     *
+     * @param slot      The slot where the item should be placed.
+     * @param itemStack The {@link ItemStack} that should be placed in the inventory.
+     * @since 1.1.0
+     */
+    public AsyncCustomItem(int slot, ItemStack itemStack) {
+        super(slot, itemStack);
+    }
+
+    /**
+     * Creates a new AsyncCustomItem with an {@link ItemStack}.
+     *
+     * @param itemStack The {@link ItemStack} that should be placed in the inventory.
+     * @since 1.1.0
+     */
+    public AsyncCustomItem(ItemStack itemStack) {
+        super(itemStack);
+    }
+
+    /**
+     * Creates a new AsyncCustomItem with a slot and a {@link CachedIcon}.
+     *
+     * @param slot The slot where the item should be placed.
+     * @param icon The {@link CachedIcon} that should be placed in the inventory.
+     * @since 1.1.0
+     */
+    public AsyncCustomItem(int slot, CachedIcon icon) {
+        super(slot, icon);
+    }
+
+    /**
+     * Creates a new AsyncCustomItem with a {@link CachedIcon}.
+     *
+     * @param icon The {@link CachedIcon} that should be placed in the inventory.
+     * @since 1.1.0
+     */
+    public AsyncCustomItem(CachedIcon icon) {
+        super(icon);
+    }
+
+    /**
+     * Cancels the event and runs {@link #onAsyncClick(ClickSnapshot)} on the click executor.
+     *
+     * @param event The {@link InventoryClickEvent} that was called when the player clicked on the item.
+     * @since 1.1.0
+     */
+    @Override
+    public final void onClick(InventoryClickEvent event) {
+        event.setCancelled(true);
+        InventoryManager inventoryManager = InventoryManager.of(event.getInventory());
+        if (inventoryManager == null) return;
+        ClickSnapshot snapshot = new ClickSnapshot(event, inventoryManager);
+        try {
+            InventoryApiRegister.getClickExecutor().execute(() -> handle(snapshot));
+        } catch (RejectedExecutionException exception) {
+            onRejected(snapshot);
+        }
+    }
+
+    /**
+     * This method is called on the click executor when the player clicks on the item.
+     * It must not use the Bukkit API, return a {@link ClickResult} to change the inventory or the player.
+     *
+     * @param snapshot The {@link ClickSnapshot} of the click.
+     * @return The {@link ClickResult} which is applied on the main thread or null if nothing should be changed.
+     * @throws Exception if the click could not be handled.
+     * @since 1.1.0
+     */
+    public abstract ClickResult onAsyncClick(ClickSnapshot snapshot) throws Exception;
+
+    /**
+     * This method is called on the main thread if the click executor is busy and the click was dropped.
+     *
+     * @param snapshot The {@link ClickSnapshot} of the dropped click.
+     * @since 1.1.0
+     */
+    protected void onRejected(ClickSnapshot snapshot) {
+    }
+
+    /**
+     * This method is called on the main thread instead of {@link ClickResult#apply(InventoryManager, Player)}
+     * if the player closed the clicked inventory or opened another one before the result could be applied.
+     * The clicked inventory must not be changed anymore, but the player can still be given items or messages.
+     * By default the result is dropped.
+     *
+     * @param snapshot The {@link ClickSnapshot} of the click.
+     * @param result   The {@link ClickResult} that was not applied.
+     * @param player   The player who clicked or null if the player left the server.
+     * @since 1.1.0
+     */
+    protected void onStale(ClickSnapshot snapshot, ClickResult result, Player player) {
+    }
+
+    private void handle(ClickSnapshot snapshot) {
+        ClickResult result;
+        try {
+            result = onAsyncClick(snapshot);
+        } catch (Exception exception) {
+            InventoryApiRegister.getPlugin().getLogger().log(Level.WARNING,
+                    "Could not handle click in inventory " + snapshot.getInventoryManager().getName(), exception);
+            return;
+        }
+        if (result == null || !InventoryApiRegister.getPlugin().isEnabled()) return;
+        try {
+            Bukkit.getScheduler().runTask(InventoryApiRegister.getPlugin(), () -> apply(snapshot, result));
+        } catch (IllegalPluginAccessException ignored) {
+        }
+    }
+
+    private void apply(ClickSnapshot snapshot, ClickResult result) {
+        InventoryManager inventoryManager = snapshot.getInventoryManager();
+        Player player = Bukkit.getPlayer(snapshot.getUUID());
+        if (InventoryApiRegister.getCustomInventoryCache().getInventory(snapshot.getUUID()).orElse(null) != inventoryManager) {
+            onStale(snapshot, result, player);
+            return;
+        }
+        result.apply(inventoryManager, player);
+    }
+}
@@ -0,0 +1,178 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+
+/**
+ * This class is used to create an inventory whose contents are loaded off the main thread.
+ * The placeholder contents are shown immediately, while the {@link ContentProvider}s run on the worker pool
+ * of the {@link InventoryApiRegister}. The loaded contents and the dispatch table are applied together on the main thread
+ * by the {@link MenuScheduler}.
+ * The loaded {@link CustomItem}s are merged into the inventory: the placeholder items are removed, while {@link CustomItem}s
+ * that were set in the meantime stay unless a loaded {@link CustomItem} uses their slot.
+ * Loaded {@link CustomItem}s without a slot are placed in the free slots.
+ * If the player closes the inventory or leaves the server before the contents are loaded, the loading is cancelled.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see ContentProvider
+ * @see InventoryApiRegister#getWorkerPool()
+ */
+public class AsyncInventoryManager extends InventoryManager {
+
+    private final ContentProvider[] providers;
+    private final ItemStack[] placeholder;
+    private final AtomicReferenceArray<List<CustomItem>> results;
+    private final AtomicReference<Throwable> failure;
+    private final AtomicInteger remaining;
+    private final Future<?>[] futures;
+    private volatile boolean cancelled;
+    private boolean loaded;
+
+    /**
+     * Creates a new inventory for a player and starts loading its contents.
+     *
+     * @param player      The player who should get the inventory.
+     * @param size        The size of the inventory.
+     * @param name        The name of the inventory.
+     * @param canceled    If the inventory should be canceled.
+     * @param placeholder The contents that are shown while loading or null for an empty inventory.
+     * @param providers   The {@link ContentProvider}s that load the contents.
+     * @throws IllegalArgumentException if no provider is given.
+     * @since 1.1.0
+     */
+    public AsyncInventoryManager(Player player, int size, String name, boolean canceled, ItemStack[] placeholder, ContentProvider... providers) {
+        super(player.getUniqueId(), size, name, canceled);
+        if (providers == null || providers.length == 0)
+            throw new IllegalArgumentException("providers cannot be empty");
+        this.providers = providers.clone();
+        this.placeholder = placeholder == null ? null : placeholder.clone();
+        this.results = new AtomicReferenceArray<>(providers.length);
+        this.failure = new AtomicReference<>();
+        this.remaining = new AtomicInteger(providers.length);
+        this.futures = new Future<?>[providers.length];
+        if (placeholder != null) writeContents(placeholder);
+        open(player);
+        load();
+    }
+
+    /**
+     * Returns if the contents are loaded and applied.
+     *
+     * @return If the contents are loaded and applied.
+     * @since 1.1.0
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Returns if the loading was cancelled.
+     *
+     * @return If the loading was cancelled.
+     * @since 1.1.0
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Cancels the loading and removes the inventory from the caches.
+     *
+     * @param uuid The UUID of the player who closed the inventory.
+     * @since 1.1.0
+     */
+    @Override
+    protected void handleClose(UUID uuid) {
+        cancel();
+        super.handleClose(uuid);
+    }
+
+    /**
+     * Returns if the contents are loaded, because an inventory whose loading was cancelled cannot be opened again.
+     *
+     * @return If the contents are loaded.
+     * @since 1.1.0
+     */
+    @Override
+    protected boolean isReusable() {
+        return loaded;
+    }
+
+    /**
+     * This method is called on the main thread if a {@link ContentProvider} failed.
+     * The placeholder contents stay in the {@link Inventory}.
+     *
+     * @param throwable The exception of the {@link ContentProvider}.
+     * @since 1.1.0
+     */
+    protected void onLoadFailed(Throwable throwable) {
+        InventoryApiRegister.getPlugin().getLogger().log(Level.WARNING, "Could not load inventory " + getName(), throwable);
+    }
+
+    private void load() {
+        ExecutorService workerPool = InventoryApiRegister.getWorkerPool();
+        for (int i = 0; i < providers.length; i++) {
+            int index = i;
+            try {
+                futures[i] = workerPool.submit(() -> {
+                    try {
+                        results.set(index, providers[index].load(getUUID()));
+                    } catch (Throwable throwable) {
+                        failure.compareAndSet(null, throwable);
+                    }
+                    if (remaining.decrementAndGet() == 0 && !cancelled) {
+                        InventoryApiRegister.getScheduler().schedule(this, this::apply);
+                    }
+                });
+            } catch (RejectedExecutionException exception) {
+                cancel();
+                return;
+            }
+        }
+    }
+
+    private void apply() {
+        if (cancelled) return;
+        Throwable throwable = failure.get();
+        if (throwable != null) {
+            onLoadFailed(throwable);
+            return;
+        }
+        ItemStack[] contents = getInventory().getContents();
+        if (placeholder != null) {
+            for (int slot = 0; slot < placeholder.length && slot < contents.length; slot++) {
+                if (placeholder[slot] != null && getCustomItem(slot) == null && placeholder[slot].equals(contents[slot])) {
+                    contents[slot] = null;
+                }
+            }
+        }
+        List<CustomItem> customItems = new ArrayList<>();
+        for (int i = 0; i < providers.length; i++) {
+            List<CustomItem> items = results.get(i);
+            if (items != null) customItems.addAll(items);
+        }
+        setItems(contents, customItems);
+        loaded = true;
+    }
+
+    private void cancel() {
+        if (loaded || cancelled) return;
+        cancelled = true;
+        for (Future<?> future : futures) {
+            if (future != null) future.cancel(true);
+        }
+    }
+}
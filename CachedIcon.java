@@ -0,0 +1,68 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * This class holds a prebuilt {@link ItemStack} of an {@link Icon} and its precomputed fingerprint.
+ * The {@link ItemStack} is shared by everyone who uses the icon.
+ * <br>
+ * <b> NOTE: Never change the shared {@link ItemStack}, use {@link #copy()} if you need a changed version. </b>
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see IconFactory
+ * @see CustomItem#CustomItem(int, CachedIcon)
+ */
+public final class CachedIcon {
+
+    private final Icon icon;
+    private final ItemStack itemStack;
+    private final int fingerprint;
+
+    CachedIcon(Icon icon, ItemStack itemStack) {
+        this.icon = icon;
+        this.itemStack = itemStack;
+        this.fingerprint = CustomItem.fingerprint(itemStack);
+    }
+
+    /**
+     * Returns the {@link Icon} this icon was built from.
+     *
+     * @return The {@link Icon}.
+     * @since 1.1.0
+     */
+    public Icon getIcon() {
+        return icon;
+    }
+
+    /**
+     * Returns the shared {@link ItemStack} of the icon.
+     *
+     * @return The shared {@link ItemStack}.
+     * @since 1.1.0
+     */
+    public ItemStack getItemStack() {
+        return itemStack;
+    }
+
+    /**
+     * Returns the precomputed fingerprint of the icon.
+     *
+     * @return The fingerprint.
+     * @see CustomItem#fingerprint(ItemStack)
+     * @since 1.1.0
+     */
+    public int getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Returns a copy of the {@link ItemStack} that can be changed.
+     *
+     * @return A copy of the {@link ItemStack}.
+     * @since 1.1.0
+     */
+    public ItemStack copy() {
+        return itemStack.clone();
+    }
+}
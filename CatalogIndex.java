@@ -0,0 +1,390 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * This class is used to search large catalogs, for example the entries of a shop or the members of a clan.
+ * The names and the lore of the entries are split into words which are kept in a sorted index,
+ * so a query only looks at the entries that contain a word starting with the words of the query.
+ * An entry matches if every word of the query is the start of a word of the entry.
+ * Matches in the name rank higher than matches in the lore, and whole words rank higher than the start of a word.
+ * The words of a query are looked up from the rarest to the most common, and once only a few entries are left,
+ * their words are checked directly instead of the entries of the more common words.
+ * <br>
+ * The result of {@link #search(String)} is a {@link PageSource}, so the {@link CustomItem}s are only created for the
+ * visible page of a {@link PagedInventoryManager}. Entries can be added, changed and removed at any time,
+ * only the words of the changed entry are updated.
+ * <pre>{@code
+ * CatalogIndex<ShopEntry> index = new CatalogIndex<>(ShopEntry::getName, ShopEntry::getLore, ShopEntry::toCustomItem);
+ * index.put(entry.getId(), entry);
+ * new PagedInventoryManager(player, 54, "Shop", true, index.search("dia sword"));
+ * }</pre>
+ *
+ * @param <T> The type of the entries.
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see PageSource
+ * @see PagedInventoryManager
+ */
+public class CatalogIndex<T> {
+
+    private static final int NAME = 1;
+    private static final int LORE = 2;
+    private static final int DIRECT_CHECK_FACTOR = 8;
+
+    private final Function<T, String> nameFunction;
+    private final Function<T, List<String>> loreFunction;
+    private final Function<T, CustomItem> renderer;
+    private final NavigableMap<String, Postings> words;
+    private final Map<String, Integer> handles;
+    private final ArrayDeque<Integer> freeHandles;
+    private Object[] entries;
+    private String[] names;
+    private String[][] entryWords;
+    private byte[][] entryFlags;
+    private int[] sequences;
+    private int[] stamps;
+    private int[] rounds;
+    private int[] hits;
+    private int[] scores;
+    private int[] best;
+    private int stamp;
+    private int round;
+    private int nextHandle;
+    private int nextSequence;
+
+    /**
+     * Creates a new empty {@link CatalogIndex}.
+     *
+     * @param name     The function that returns the name of an entry.
+     * @param lore     The function that returns the lore of an entry or null if the lore should not be searched.
+     * @param renderer The function that creates the {@link CustomItem} of an entry.
+     * @since 1.1.0
+     */
+    public CatalogIndex(Function<T, String> name, Function<T, List<String>> lore, Function<T, CustomItem> renderer) {
+        this.nameFunction = name;
+        this.loreFunction = lore;
+        this.renderer = renderer;
+        this.words = new TreeMap<>();
+        this.handles = new HashMap<>();
+        this.freeHandles = new ArrayDeque<>();
+        resize(64);
+    }
+
+    /**
+     * Adds an entry or replaces the entry with the same id.
+     * A replaced entry keeps the place of the old entry in the order entries were added in.
+     *
+     * @param id    The id of the entry.
+     * @param entry The entry.
+     * @throws IllegalArgumentException if id or entry is null.
+     * @since 1.1.0
+     */
+    public synchronized void put(String id, T entry) {
+        if (id == null || entry == null) throw new IllegalArgumentException("id and entry cannot be null");
+        Integer handle = handles.get(id);
+        if (handle == null) {
+            handle = freeHandles.isEmpty() ? nextHandle++ : freeHandles.poll();
+            if (handle >= entries.length) resize(entries.length * 2);
+            sequences[handle] = nextSequence();
+            handles.put(id, handle);
+        } else {
+            unindex(handle);
+        }
+        String name = nameFunction.apply(entry);
+        Map<String, Integer> entryTokens = new LinkedHashMap<>();
+        tokenize(name, NAME, entryTokens);
+        List<String> lore = loreFunction == null ? null : loreFunction.apply(entry);
+        if (lore != null) {
+            for (String line : lore) {
+                tokenize(line, LORE, entryTokens);
+            }
+        }
+        for (Map.Entry<String, Integer> token : entryTokens.entrySet()) {
+            words.computeIfAbsent(token.getKey(), key -> new Postings()).add(handle, token.getValue());
+        }
+        entries[handle] = entry;
+        names[handle] = name == null ? "" : ChatColor.stripColor(name).toLowerCase(Locale.ROOT);
+        entryWords[handle] = entryTokens.keySet().toArray(new String[0]);
+        byte[] flags = new byte[entryTokens.size()];
+        int index = 0;
+        for (int flag : entryTokens.values()) {
+            flags[index++] = (byte) flag;
+        }
+        entryFlags[handle] = flags;
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param id The id of the entry.
+     * @return If the entry was removed.
+     * @since 1.1.0
+     */
+    public synchronized boolean remove(String id) {
+        Integer handle = handles.remove(id);
+        if (handle == null) return false;
+        unindex(handle);
+        entries[handle] = null;
+        names[handle] = null;
+        entryWords[handle] = null;
+        entryFlags[handle] = null;
+        freeHandles.add(handle);
+        return true;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return The number of entries.
+     * @since 1.1.0
+     */
+    public synchronized int size() {
+        return handles.size();
+    }
+
+    /**
+     * Returns the number of different words of all entries.
+     *
+     * @return The number of words in the index.
+     * @since 1.1.0
+     */
+    public synchronized int getWordCount() {
+        return words.size();
+    }
+
+    /**
+     * Searches the entries which match the query, ranked by their score. Entries with the same score are ranked
+     * by the length of their name, so the closest matches come first, and then by the order they were added in.
+     * If the query contains no words, all entries are returned.
+     * The result does not change if entries are changed later.
+     *
+     * @param query The query, for example the text a player typed.
+     * @return A {@link PageSource} of the matching entries.
+     * @since 1.1.0
+     */
+    public synchronized PageSource search(String query) {
+        Map<String, Integer> queryTokens = new LinkedHashMap<>();
+        tokenize(query, NAME, queryTokens);
+        int[] candidates;
+        int count;
+        if (queryTokens.isEmpty()) {
+            candidates = new int[handles.size()];
+            count = 0;
+            for (int handle : handles.values()) {
+                candidates[count++] = handle;
+                scores[handle] = 0;
+            }
+        } else {
+            if (++stamp == 0) {
+                Arrays.fill(stamps, 0);
+                stamp = 1;
+            }
+            candidates = new int[16];
+            count = 0;
+            int index = 0;
+            Map<String, Integer> costs = new HashMap<>();
+            for (String token : queryTokens.keySet()) {
+                int cost = 0;
+                for (Postings postings : prefixRange(token).values()) {
+                    cost += postings.size;
+                }
+                costs.put(token, cost);
+            }
+            List<String> tokens = new ArrayList<>(queryTokens.keySet());
+            tokens.sort((a, b) -> Integer.compare(costs.get(a), costs.get(b)));
+            for (String token : tokens) {
+                if (index > 0 && (long) count * DIRECT_CHECK_FACTOR < costs.get(token)) {
+                    int kept = 0;
+                    for (int i = 0; i < count; i++) {
+                        int handle = candidates[i];
+                        int score = bestScore(handle, token);
+                        if (score == 0) continue;
+                        hits[handle]++;
+                        scores[handle] += score;
+                        candidates[kept++] = handle;
+                    }
+                    count = kept;
+                    if (count == 0) return PageSource.of(Collections.emptyList(), renderer);
+                    index++;
+                    continue;
+                }
+                if (++round == 0) {
+                    Arrays.fill(rounds, 0);
+                    round = 1;
+                }
+                for (Map.Entry<String, Postings> word : prefixRange(token).entrySet()) {
+                    boolean exact = word.getKey().length() == token.length();
+                    Postings postings = word.getValue();
+                    for (int i = 0; i < postings.size; i++) {
+                        int handle = postings.handles[i];
+                        if (index == 0) {
+                            if (stamps[handle] != stamp) {
+                                stamps[handle] = stamp;
+                                hits[handle] = 0;
+                                scores[handle] = 0;
+                                if (count == candidates.length) candidates = Arrays.copyOf(candidates, count * 2);
+                                candidates[count++] = handle;
+                            }
+                        } else if (stamps[handle] != stamp || hits[handle] != index) {
+                            continue;
+                        }
+                        int score = score(postings.flags[i], exact);
+                        if (rounds[handle] != round) {
+                            rounds[handle] = round;
+                            best[handle] = score;
+                        } else if (score > best[handle]) {
+                            best[handle] = score;
+                        }
+                    }
+                }
+                int kept = 0;
+                for (int i = 0; i < count; i++) {
+                    int handle = candidates[i];
+                    if (rounds[handle] != round) continue;
+                    hits[handle]++;
+                    scores[handle] += best[handle];
+                    candidates[kept++] = handle;
+                }
+                count = kept;
+                if (count == 0) return PageSource.of(Collections.emptyList(), renderer);
+                index++;
+            }
+        }
+        long[] order = new long[count];
+        for (int i = 0; i < count; i++) {
+            int handle = candidates[i];
+            order[i] = (long) sequences[handle] << 32 | handle;
+        }
+        Arrays.sort(order);
+        long[] ranked = new long[count];
+        for (int i = 0; i < count; i++) {
+            int handle = (int) order[i];
+            ranked[i] = (long) (0xFFFF - Math.min(scores[handle], 0xFFFF)) << 48
+                    | (long) Math.min(names[handle].length(), 0xFFFF) << 32 | i;
+        }
+        Arrays.sort(ranked);
+        List<T> result = new ArrayList<>(count);
+        for (long key : ranked) {
+            result.add(entry((int) order[(int) key]));
+        }
+        return PageSource.of(result, renderer);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T entry(int handle) {
+        return (T) entries[handle];
+    }
+
+    private NavigableMap<String, Postings> prefixRange(String token) {
+        return words.subMap(token, true, token + Character.MAX_VALUE, true);
+    }
+
+    private int bestScore(int handle, String token) {
+        String[] candidateWords = entryWords[handle];
+        byte[] flags = entryFlags[handle];
+        int best = 0;
+        for (int i = 0; i < candidateWords.length; i++) {
+            if (candidateWords[i].startsWith(token)) best = Math.max(best, score(flags[i], candidateWords[i].length() == token.length()));
+        }
+        return best;
+    }
+
+    private int nextSequence() {
+        if (nextSequence == Integer.MAX_VALUE) {
+            long[] order = new long[handles.size()];
+            int count = 0;
+            for (int handle : handles.values()) {
+                order[count++] = (long) sequences[handle] << 32 | handle;
+            }
+            Arrays.sort(order, 0, count);
+            for (int i = 0; i < count; i++) {
+                sequences[(int) order[i]] = i;
+            }
+            nextSequence = count;
+        }
+        return nextSequence++;
+    }
+
+    private void unindex(int handle) {
+        for (String word : entryWords[handle]) {
+            Postings postings = words.get(word);
+            if (postings != null && postings.remove(handle) && postings.size == 0) words.remove(word);
+        }
+    }
+
+    private void resize(int capacity) {
+        entries = entries == null ? new Object[capacity] : Arrays.copyOf(entries, capacity);
+        names = names == null ? new String[capacity] : Arrays.copyOf(names, capacity);
+        entryWords = entryWords == null ? new String[capacity][] : Arrays.copyOf(entryWords, capacity);
+        entryFlags = entryFlags == null ? new byte[capacity][] : Arrays.copyOf(entryFlags, capacity);
+        sequences = sequences == null ? new int[capacity] : Arrays.copyOf(sequences, capacity);
+        stamps = stamps == null ? new int[capacity] : Arrays.copyOf(stamps, capacity);
+        rounds = rounds == null ? new int[capacity] : Arrays.copyOf(rounds, capacity);
+        hits = hits == null ? new int[capacity] : Arrays.copyOf(hits, capacity);
+        scores = scores == null ? new int[capacity] : Arrays.copyOf(scores, capacity);
+        best = best == null ? new int[capacity] : Arrays.copyOf(best, capacity);
+    }
+
+    private static int score(int flags, boolean exact) {
+        if ((flags & NAME) != 0) return exact ? 8 : 4;
+        return exact ? 2 : 1;
+    }
+
+    private static void tokenize(String text, int field, Map<String, Integer> tokens) {
+        if (text == null) return;
+        String stripped = ChatColor.stripColor(text).toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= stripped.length(); i++) {
+            boolean letter = i < stripped.length() && Character.isLetterOrDigit(stripped.charAt(i));
+            if (letter && start == -1) {
+                start = i;
+            } else if (!letter && start != -1) {
+                tokens.merge(stripped.substring(start, i), field, (a, b) -> a | b);
+                start = -1;
+            }
+        }
+    }
+
+    private static final class Postings {
+
+        private int[] handles = new int[4];
+        private byte[] flags = new byte[4];
+        private int size;
+
+        private void add(int handle, int flag) {
+            if (size == handles.length) {
+                handles = Arrays.copyOf(handles, size * 2);
+                flags = Arrays.copyOf(flags, size * 2);
+            }
+            handles[size] = handle;
+            flags[size] = (byte) flag;
+            size++;
+        }
+
+        private boolean remove(int handle) {
+            for (int i = 0; i < size; i++) {
+                if (handles[i] == handle) {
+                    size--;
+                    handles[i] = handles[size];
+                    flags[i] = flags[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.event.inventory.InventoryClickEvent;
+
+/**
+ * This interface is used to handle a click without creating a subclass of {@link CustomItem}.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see CustomItem#of(int, org.bukkit.inventory.ItemStack, ClickHandler)
+ */
+@FunctionalInterface
+public interface ClickHandler {
+
+    /**
+     * This method is called when the player clicks on the item.
+     *
+     * @param event The {@link InventoryClickEvent} that was called when the player clicked on the item.
+     * @since 1.1.0
+     */
+    void onClick(InventoryClickEvent event);
+}
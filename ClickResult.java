@@ -0,0 +1,26 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.entity.Player;
+
+/**
+ * This interface is returned by {@link AsyncCustomItem#onAsyncClick(ClickSnapshot)}.
+ * It contains the changes to the inventory or the player and is applied on the main thread.
+ * It is only applied while the player still has the clicked inventory open,
+ * otherwise it is passed to {@link AsyncCustomItem#onStale(ClickSnapshot, ClickResult, Player)}.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see AsyncCustomItem
+ */
+@FunctionalInterface
+public interface ClickResult {
+
+    /**
+     * Applies the result on the main thread.
+     *
+     * @param inventoryManager The {@link InventoryManager} that was clicked.
+     * @param player           The player who clicked or null if the player left the server.
+     * @since 1.1.0
+     */
+    void apply(InventoryManager inventoryManager, Player player);
+}
@@ -0,0 +1,103 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.UUID;
+
+/**
+ * This class is an immutable snapshot of an {@link InventoryClickEvent}.
+ * It is passed to {@link AsyncCustomItem#onAsyncClick(ClickSnapshot)} instead of the event,
+ * because the event must not be used outside of the main thread.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see AsyncCustomItem
+ */
+public final class ClickSnapshot {
+
+    private final UUID uuid;
+    private final int slot;
+    private final ClickType click;
+    private final ItemStack itemStack;
+    private final InventoryManager inventoryManager;
+    private final long timestamp;
+
+    /**
+     * Creates a new snapshot of the given {@link InventoryClickEvent}.
+     *
+     * @param event            The {@link InventoryClickEvent} of the click.
+     * @param inventoryManager The {@link InventoryManager} that was clicked.
+     * @since 1.1.0
+     */
+    public ClickSnapshot(InventoryClickEvent event, InventoryManager inventoryManager) {
+        this.uuid = event.getWhoClicked().getUniqueId();
+        this.slot = event.getRawSlot();
+        this.click = event.getClick();
+        this.itemStack = event.getCurrentItem() == null ? null : event.getCurrentItem().clone();
+        this.inventoryManager = inventoryManager;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the UUID of the player who clicked.
+     *
+     * @return The UUID of the player who clicked.
+     * @since 1.1.0
+     */
+    public UUID getUUID() {
+        return uuid;
+    }
+
+    /**
+     * Returns the raw slot that was clicked.
+     *
+     * @return The raw slot that was clicked.
+     * @since 1.1.0
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Returns the {@link ClickType} of the click.
+     *
+     * @return The {@link ClickType} of the click.
+     * @since 1.1.0
+     */
+    public ClickType getClick() {
+        return click;
+    }
+
+    /**
+     * Returns a copy of the {@link ItemStack} that was clicked.
+     *
+     * @return A copy of the clicked {@link ItemStack} or null if the slot was empty.
+     * @since 1.1.0
+     */
+    public ItemStack getItemStack() {
+        return itemStack == null ? null : itemStack.clone();
+    }
+
+    /**
+     * Returns the {@link InventoryManager} that was clicked.
+     * <b> NOTE: It must only be changed on the main thread, use a {@link ClickResult} for that. </b>
+     *
+     * @return The {@link InventoryManager} that was clicked.
+     * @since 1.1.0
+     */
+    public InventoryManager getInventoryManager() {
+        return inventoryManager;
+    }
+
+    /**
+     * Returns the time in milliseconds when the click happened.
+     *
+     * @return The time in milliseconds when the click happened.
+     * @since 1.1.0
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
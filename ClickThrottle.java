@@ -0,0 +1,299 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.inventory.InventoryClickEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * This class is used to limit how often a player can trigger {@link CustomItem} handlers.
+ * Each player gets a token bucket that holds up to {@code capacity} clicks and is refilled with {@code clicksPerSecond}.
+ * Optionally, repeated clicks of a player on the same slot of the same {@link InventoryManager} within the coalesce window
+ * are merged into one invocation of the handler, which runs when the window is over.
+ * The handler gets the {@link InventoryClickEvent} of the last click, which was already handled by the server.
+ * It is stale and must only be read, see {@link #setCoalesceWindow(long)}.
+ * A throttle can be set for all inventories in the {@link InventoryApiRegister},
+ * for a single {@link InventoryManager} or for a single {@link CustomItem}.
+ * If several throttles of a click have a coalesce window, the window of the most specific throttle is used.
+ * Clicks that are throttled are cancelled and never reach the handler.
+ * The buckets of idle players are evicted by the {@link InventorySweeper}.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see InventoryApiRegister#setClickThrottle(ClickThrottle)
+ * @see InventoryManager#setClickThrottle(ClickThrottle)
+ * @see CustomItem#setClickThrottle(ClickThrottle)
+ */
+public class ClickThrottle {
+
+    private static final Set<ClickThrottle> THROTTLES = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+    private static final long NANOS_PER_TICK = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final int capacity;
+    private final double tokensPerNano;
+    private final Map<UUID, Bucket> buckets;
+    private final Map<PendingKey, PendingClick> pendingClicks;
+    private final LongAdder passedClicks;
+    private final LongAdder droppedClicks;
+    private final LongAdder coalescedClicks;
+    private volatile long coalesceWindowNanos;
+
+    /**
+     * Creates a new {@link ClickThrottle}.
+     *
+     * @param capacity        The number of clicks a player can do in a burst.
+     * @param clicksPerSecond The number of clicks per second a player can do permanently.
+     * @throws IllegalArgumentException if capacity or clicksPerSecond is not positive.
+     * @since 1.1.0
+     */
+    public ClickThrottle(int capacity, double clicksPerSecond) {
+        if (capacity <= 0 || clicksPerSecond <= 0)
+            throw new IllegalArgumentException("capacity and clicksPerSecond must be positive");
+        this.capacity = capacity;
+        this.tokensPerNano = clicksPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.buckets = new ConcurrentHashMap<>();
+        this.pendingClicks = new ConcurrentHashMap<>();
+        this.passedClicks = new LongAdder();
+        this.droppedClicks = new LongAdder();
+        this.coalescedClicks = new LongAdder();
+        THROTTLES.add(this);
+    }
+
+    /**
+     * Sets the window in which repeated clicks on the same slot are merged.
+     * The first click starts the window, and the handler is called once when the window is over,
+     * with the {@link InventoryClickEvent} of the last click. The clicks are cancelled when they happen,
+     * so cancelling the event in the handler has no effect. The window is rounded up to whole ticks.
+     * <br>
+     * The event was already handled by the server when the handler runs, so it is stale and must only be read.
+     * Its cursor and clicked item show the state of the last click, not the current one, and setting them
+     * changes the view of that click. Change the items with the methods of the {@link InventoryManager} instead.
+     * The handler is only called if the player still has the {@link InventoryManager} open and the slot still holds
+     * the clicked {@link CustomItem}.
+     *
+     * @param millis The window in milliseconds or 0 to disable coalescing.
+     * @since 1.1.0
+     */
+    public void setCoalesceWindow(long millis) {
+        this.coalesceWindowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+    }
+
+    /**
+     * Returns if repeated clicks are merged.
+     *
+     * @return If the coalesce window is set.
+     * @since 1.1.0
+     */
+    public boolean isCoalescing() {
+        return coalesceWindowNanos > 0;
+    }
+
+    /**
+     * Checks if a click of the player may be dispatched and takes a token if so.
+     *
+     * @param uuid The UUID of the player who clicked.
+     * @return true if the click may be dispatched, false if it was throttled.
+     * @since 1.1.0
+     */
+    public boolean tryClick(UUID uuid) {
+        long now = System.nanoTime();
+        Bucket bucket = buckets.computeIfAbsent(uuid, key -> new Bucket(capacity, now));
+        synchronized (bucket) {
+            bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.lastRefill) * tokensPerNano);
+            bucket.lastRefill = now;
+            if (bucket.tokens < 1) {
+                droppedClicks.increment();
+                return false;
+            }
+            bucket.tokens--;
+        }
+        passedClicks.increment();
+        return true;
+    }
+
+    /**
+     * Removes the bucket and the pending clicks of the given player, for example when the player leaves the server.
+     *
+     * @param uuid The UUID of the player.
+     * @since 1.1.0
+     */
+    public void reset(UUID uuid) {
+        buckets.remove(uuid);
+        pendingClicks.keySet().removeIf(key -> key.uuid.equals(uuid));
+    }
+
+    /**
+     * Removes the buckets of all players who did not click long enough to refill their bucket.
+     * It is called periodically by the {@link InventorySweeper}.
+     *
+     * @return The number of removed buckets.
+     * @since 1.1.0
+     */
+    public int evictIdle() {
+        long now = System.nanoTime();
+        long refillNanos = (long) (capacity / tokensPerNano);
+        int size = buckets.size();
+        buckets.values().removeIf(bucket -> {
+            synchronized (bucket) {
+                return now - bucket.lastRefill > refillNanos;
+            }
+        });
+        return size - buckets.size();
+    }
+
+    /**
+     * Returns the number of clicks that were dispatched.
+     *
+     * @return The number of clicks that were dispatched.
+     * @since 1.1.0
+     */
+    public long getPassedClicks() {
+        return passedClicks.sum();
+    }
+
+    /**
+     * Returns the number of clicks that were dropped because the player had no tokens left.
+     *
+     * @return The number of clicks that were dropped.
+     * @since 1.1.0
+     */
+    public long getDroppedClicks() {
+        return droppedClicks.sum();
+    }
+
+    /**
+     * Returns the number of clicks that were merged into a pending click on the same slot.
+     *
+     * @return The number of clicks that were merged.
+     * @since 1.1.0
+     */
+    public long getCoalescedClicks() {
+        return coalescedClicks.sum();
+    }
+
+    /**
+     * Merges a click into the pending click of the player on the same slot of the same {@link InventoryManager}.
+     * It must be called on the main thread.
+     *
+     * @param uuid             The UUID of the player who clicked.
+     * @param inventoryManager The {@link InventoryManager} that was clicked.
+     * @param slot             The raw slot that was clicked.
+     * @param event            The {@link InventoryClickEvent} of the click.
+     * @return true if the click was merged, false if there is no pending click.
+     * @since 1.1.0
+     */
+    boolean mergePending(UUID uuid, InventoryManager inventoryManager, int slot, InventoryClickEvent event) {
+        PendingClick pendingClick = pendingClicks.get(new PendingKey(uuid, inventoryManager, slot));
+        if (pendingClick == null) return false;
+        pendingClick.event = event;
+        coalescedClicks.increment();
+        return true;
+    }
+
+    /**
+     * Starts a pending click which is dispatched with the last merged {@link InventoryClickEvent} when the coalesce window is over.
+     * The dispatched event is stale and must only be read. It must be called on the main thread.
+     *
+     * @param uuid             The UUID of the player who clicked.
+     * @param inventoryManager The {@link InventoryManager} that was clicked.
+     * @param slot             The raw slot that was clicked.
+     * @param event            The {@link InventoryClickEvent} of the click.
+     * @param dispatcher       The dispatcher which calls the handler.
+     * @since 1.1.0
+     */
+    void startPending(UUID uuid, InventoryManager inventoryManager, int slot, InventoryClickEvent event, Consumer<InventoryClickEvent> dispatcher) {
+        PendingKey key = new PendingKey(uuid, inventoryManager, slot);
+        PendingClick pendingClick = new PendingClick(event);
+        pendingClicks.put(key, pendingClick);
+        long ticks = Math.max(1, (coalesceWindowNanos + NANOS_PER_TICK - 1) / NANOS_PER_TICK);
+        Bukkit.getScheduler().runTaskLater(InventoryApiRegister.getPlugin(), () -> {
+            if (pendingClicks.remove(key, pendingClick)) dispatcher.accept(pendingClick.event);
+        }, ticks);
+    }
+
+    /**
+     * Removes the idle buckets of all {@link ClickThrottle}s.
+     *
+     * @see #evictIdle()
+     * @since 1.1.0
+     */
+    static void evictIdleBuckets() {
+        for (ClickThrottle clickThrottle : snapshot()) {
+            clickThrottle.evictIdle();
+        }
+    }
+
+    /**
+     * Removes the bucket and the pending clicks of the given player from all {@link ClickThrottle}s.
+     *
+     * @param uuid The UUID of the player.
+     * @see #reset(UUID)
+     * @since 1.1.0
+     */
+    static void resetAll(UUID uuid) {
+        for (ClickThrottle clickThrottle : snapshot()) {
+            clickThrottle.reset(uuid);
+        }
+    }
+
+    private static List<ClickThrottle> snapshot() {
+        synchronized (THROTTLES) {
+            return new ArrayList<>(THROTTLES);
+        }
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long lastRefill;
+
+        private Bucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+    }
+
+    private static final class PendingKey {
+
+        private final UUID uuid;
+        private final InventoryManager inventoryManager;
+        private final int slot;
+
+        private PendingKey(UUID uuid, InventoryManager inventoryManager, int slot) {
+            this.uuid = uuid;
+            this.inventoryManager = inventoryManager;
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof PendingKey)) return false;
+            PendingKey other = (PendingKey) object;
+            return slot == other.slot && inventoryManager == other.inventoryManager && uuid.equals(other.uuid);
+        }
+
+        @Override
+        public int hashCode() {
+            return (uuid.hashCode() * 31 + System.identityHashCode(inventoryManager)) * 31 + slot;
+        }
+    }
+
+    private static final class PendingClick {
+
+        private InventoryClickEvent event;
+
+        private PendingClick(InventoryClickEvent event) {
+            this.event = event;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * This interface is used to load the {@link CustomItem}s of an {@link AsyncInventoryManager} off the main thread.
+ * It is called on a worker thread, so it must not use the Bukkit API.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see AsyncInventoryManager
+ */
+@FunctionalInterface
+public interface ContentProvider {
+
+    /**
+     * Loads the {@link CustomItem}s for the given player. Each {@link CustomItem} is placed in its own slot,
+     * {@link CustomItem}s without a slot are placed in the free slots.
+     *
+     * @param uuid The UUID of the player who opened the inventory.
+     * @return The loaded {@link CustomItem}s.
+     * @throws Exception if the items could not be loaded.
+     * @since 1.1.0
+     */
+    List<CustomItem> load(UUID uuid) throws Exception;
+}
@@ -3,13 +3,19 @@ package net.splatcrafter.clansystem.api.inventorymanager;
 import org.bukkit.entity.Player;
 
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Creates a cache for the {@link InventoryManager} class.
  * This class is used to store the {@link InventoryManager} for each player.
  * Each player can only have one {@link InventoryManager} at a time.
  * This is used to prevent the player from opening multiple inventories at once.
+ * The cache is keyed by the UUID of the player, so it never keeps a reference to a {@link Player}.
+ * Entries that were missed by the {@link InventoryListener} are reclaimed by the {@link InventorySweeper}.
+ * The cache is backed by a {@link ConcurrentHashMap}, so it can be used from any thread without a lock.
  *
  * @author Splatcrafter
  * @version 1.0.0
@@ -17,10 +23,10 @@ import java.util.Optional;
  */
 public class CustomInventoryCache {
 
-    private HashMap<Player, InventoryManager> inventoryHashMap;
+    private ConcurrentHashMap<UUID, InventoryManager> inventoryHashMap;
 
     public CustomInventoryCache() {
-        this.inventoryHashMap = new HashMap<>();
+        this.inventoryHashMap = new ConcurrentHashMap<>();
     }
 
     /**
@@ -32,7 +38,19 @@ public class CustomInventoryCache {
      * @since 1.0.0
      */
     public Optional<InventoryManager> getInventory(Player player) {
-        return Optional.ofNullable(inventoryHashMap.get(player));
+        return getInventory(player.getUniqueId());
+    }
+
+    /**
+     * Returns the Optional containing the {@link InventoryManager} for the player with the given UUID.
+     *
+     * @param uuid The UUID of the player that should be searched for.
+     * @return Optional containing the {@link InventoryManager} for the player.
+     * @see InventoryManager
+     * @since 1.1.0
+     */
+    public Optional<InventoryManager> getInventory(UUID uuid) {
+        return Optional.ofNullable(inventoryHashMap.get(uuid));
     }
 
     /**
@@ -47,7 +65,7 @@ public class CustomInventoryCache {
     public void addInventory(Player player, InventoryManager inventoryManager) {
         if (player == null || inventoryManager == null)
             throw new IllegalArgumentException("player and inventoryManager cannot be null");
-        this.inventoryHashMap.put(player, inventoryManager);
+        this.inventoryHashMap.put(player.getUniqueId(), inventoryManager);
     }
 
     /**
@@ -60,7 +78,23 @@ public class CustomInventoryCache {
      */
     public void removeInventory(Player player) {
         if (player == null) throw new IllegalArgumentException("player cannot be null");
-        this.inventoryHashMap.remove(player);
+        this.inventoryHashMap.remove(player.getUniqueId());
+    }
+
+    /**
+     * Removes the given {@link InventoryManager} from the cache if it is still the one cached for the player.
+     * This is used if the player already opened another {@link InventoryManager} before the old one was closed.
+     *
+     * @param uuid             The UUID of the player that should be removed from the cache.
+     * @param inventoryManager The {@link InventoryManager} that is expected to be cached for the player.
+     * @throws IllegalArgumentException if uuid or inventoryManager is null.
+     * @see InventoryManager
+     * @since 1.1.0
+     */
+    public void removeInventory(UUID uuid, InventoryManager inventoryManager) {
+        if (uuid == null || inventoryManager == null)
+            throw new IllegalArgumentException("uuid and inventoryManager cannot be null");
+        this.inventoryHashMap.remove(uuid, inventoryManager);
     }
 
     /**
@@ -74,6 +108,35 @@ public class CustomInventoryCache {
      */
     public boolean hasInventory(Player player) {
         if (player == null) throw new IllegalArgumentException("player cannot be null");
-        return this.inventoryHashMap.containsKey(player);
+        return this.inventoryHashMap.containsKey(player.getUniqueId());
+    }
+
+    /**
+     * Returns the number of cached inventories.
+     *
+     * @return The number of cached inventories.
+     * @since 1.1.0
+     */
+    public int size() {
+        return this.inventoryHashMap.size();
+    }
+
+    /**
+     * Returns a snapshot of all cached {@link InventoryManager}s by the UUID of their player.
+     *
+     * @return A copy of the cache.
+     * @since 1.1.0
+     */
+    public Map<UUID, InventoryManager> getInventories() {
+        return new HashMap<>(this.inventoryHashMap);
+    }
+
+    /**
+     * Removes all {@link InventoryManager}s from the cache.
+     *
+     * @since 1.1.0
+     */
+    public void clear() {
+        this.inventoryHashMap.clear();
     }
 }
@@ -2,6 +2,7 @@ package net.splatcrafter.clansystem.api.inventorymanager;
 
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 
 /**
  * This abstract class is used to create custom items for the {@link InventoryManager}.
@@ -21,6 +22,9 @@ public abstract class CustomItem {
 
     public final int slot;
     public final ItemStack itemStack;
+    private int fingerprint;
+    private volatile int boundSlot = -1;
+    private ClickThrottle clickThrottle;
 
     /**
      * Creates a new CustomItem with a slot and an {@link ItemStack}.
@@ -50,9 +54,127 @@ public abstract class CustomItem {
         this.itemStack = itemStack;
     }
 
+    /**
+     * Creates a new CustomItem with a slot and a {@link CachedIcon}.
+     * The {@link ItemStack} and the fingerprint of the icon are shared, so nothing has to be built or computed.
+     *
+     * @param slot The slot where the item should be placed.
+     * @param icon The {@link CachedIcon} that should be placed in the inventory.
+     * @see IconFactory
+     * @since 1.1.0
+     */
+    public CustomItem(int slot, CachedIcon icon) {
+        this.slot = slot;
+        this.itemStack = icon.getItemStack();
+        this.fingerprint = icon.getFingerprint();
+    }
+
+    /**
+     * Creates a new CustomItem with a {@link CachedIcon}.
+     * This constructor is used if you don't want to specify a slot.
+     *
+     * @param icon The {@link CachedIcon} that should be placed in the inventory.
+     * @see IconFactory
+     * @since 1.1.0
+     */
+    public CustomItem(CachedIcon icon) {
+        this(-1, icon);
+    }
+
+    /**
+     * Returns the slot of this item.
+     * If the item was created without a slot, this is the slot it was placed in by {@link InventoryManager#addItem(CustomItem)}
+     * or {@link InventoryManager#placeItem(CustomItem)}.
+     *
+     * @return the slot of this item or -1 if the item was not placed yet
+     * @since 1.1.0
+     */
+    public int getSlot() {
+        return slot != -1 ? slot : boundSlot;
+    }
+
+    void bind(int slot) {
+        this.boundSlot = slot;
+    }
+
+    /**
+     * Returns the {@link ClickThrottle} of this item.
+     *
+     * @return the {@link ClickThrottle} or null if no throttle is set
+     * @since 1.1.0
+     */
+    public ClickThrottle getClickThrottle() {
+        return clickThrottle;
+    }
+
+    /**
+     * Sets the {@link ClickThrottle} of this item, for example for expensive handlers like purchases.
+     *
+     * @param clickThrottle the {@link ClickThrottle} or null to disable it
+     * @see ClickThrottle
+     * @since 1.1.0
+     */
+    public void setClickThrottle(ClickThrottle clickThrottle) {
+        this.clickThrottle = clickThrottle;
+    }
+
+    /**
+     * Returns the fingerprint of the {@link ItemStack} of this item.
+     * The fingerprint is computed once from the type and the display name and then reused for every click.
+     *
+     * @return the fingerprint of the {@link ItemStack}
+     * @see #fingerprint(ItemStack)
+     * @since 1.1.0
+     */
+    public int getFingerprint() {
+        int fingerprint = this.fingerprint;
+        if (fingerprint == 0) {
+            fingerprint = fingerprint(itemStack);
+            this.fingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Computes the fingerprint of the given {@link ItemStack} from its type and its display name.
+     *
+     * @param itemStack The {@link ItemStack} to compute the fingerprint for.
+     * @return the fingerprint or 0 if the {@link ItemStack} is null
+     * @since 1.1.0
+     */
+    public static int fingerprint(ItemStack itemStack) {
+        if (itemStack == null) return 0;
+        int hash = itemStack.getType().ordinal() + 1;
+        if (itemStack.hasItemMeta()) {
+            ItemMeta itemMeta = itemStack.getItemMeta();
+            if (itemMeta.hasDisplayName()) hash = 31 * hash + itemMeta.getDisplayName().hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * Creates a new CustomItem that passes its clicks to the given {@link ClickHandler}.
+     *
+     * @param slot      The slot where the item should be placed or -1 for no slot.
+     * @param itemStack The {@link ItemStack} that should be placed in the inventory.
+     * @param handler   The {@link ClickHandler} of the item or null if clicks should be ignored.
+     * @return the new CustomItem
+     * @since 1.1.0
+     */
+    public static CustomItem of(int slot, ItemStack itemStack, ClickHandler handler) {
+        return new CustomItem(slot, itemStack) {
+            @Override
+            public void onClick(InventoryClickEvent event) {
+                if (handler != null) handler.onClick(event);
+            }
+        };
+    }
+
     /**
      * This method is called when the player clicks on the item.<br>
-     * <b> NOTE: It is highly recommended to do nothing with this method. </b>
+     * <b> NOTE: It is highly recommended to do nothing with this method. </b><br>
+     * If the click is coalesced by a {@link ClickThrottle}, this method is called some ticks after the click
+     * with an event that was already handled by the server and must only be read.
      *
      * @param event The {@link InventoryClickEvent} that was called when the player clicked on the item.
      * @see InventoryClickEvent
@@ -1,5 +1,7 @@
 package net.splatcrafter.clansystem.api.inventorymanager;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -8,6 +10,12 @@ import java.util.concurrent.ConcurrentHashMap;
  * This class is used to cache {@link CustomItem}s in {@link InventoryManager}s.
  * It caches the {@link CustomItem}s in a {@link ConcurrentHashMap} with the {@link InventoryManager} as key and a {@link Set} of {@link CustomItem}s as value.
  * This class is used to prevent {@link CustomItem}s from being duplicated in {@link InventoryManager}s.
+ * <br>
+ * The cache does not use any lock. Each {@link Set} is immutable and is replaced as a whole with
+ * {@link ConcurrentHashMap#compute} whenever a {@link CustomItem} is added or removed.
+ * Each change of the {@link Set} of an {@link InventoryManager} is atomic, so concurrent changes are never lost,
+ * and a read on any thread returns a complete {@link Set} that was stored by a finished change.
+ * The cache only publishes its own {@link Set}s, other state of an {@link InventoryManager} is not made visible by it.
  *
  * @author Splarcrafter
  * @see InventoryManager
@@ -17,7 +25,7 @@ import java.util.concurrent.ConcurrentHashMap;
 public class CustomItemInventoryCache {
 
     private final ConcurrentHashMap<InventoryManager, Set<CustomItem>> customItemHashMap;
-    private static CustomItemInventoryCache instance;
+    private static volatile CustomItemInventoryCache instance;
 
     /**
      * Creates a new {@link CustomItemInventoryCache} instance.
@@ -33,6 +41,7 @@ public class CustomItemInventoryCache {
 
     /**
      * Returns the {@link ConcurrentHashMap} that contains the {@link CustomItem}s.
+     * The {@link Set}s of the map are immutable snapshots.
      *
      * @return the {@link ConcurrentHashMap} that contains the {@link CustomItem}s
      * @see ConcurrentHashMap
@@ -55,7 +64,7 @@ public class CustomItemInventoryCache {
     /**
      * Adds a {@link CustomItem} to the {@link ConcurrentHashMap}.
      * If the {@link InventoryManager} or the {@link CustomItem} is null, an {@link IllegalArgumentException} is thrown.
-     * It is synchronized to prevent {@link CustomItem}s from being duplicated.
+     * The {@link Set} of the {@link InventoryManager} is replaced atomically, so {@link CustomItem}s are never duplicated or lost.
      *
      * @param inventoryManager the {@link InventoryManager} to add the {@link CustomItem} to
      * @param customItem       the {@link CustomItem} to add
@@ -64,19 +73,22 @@ public class CustomItemInventoryCache {
      * @see CustomItem
      * @since 1.0.0
      */
-    public synchronized void addCustomItem(InventoryManager inventoryManager, CustomItem customItem) {
+    public void addCustomItem(InventoryManager inventoryManager, CustomItem customItem) {
         if (inventoryManager == null || customItem == null)
             throw new IllegalArgumentException("inventoryManager and customItem cannot be null");
 
-        Set<CustomItem> customItemSet = this.customItemHashMap.getOrDefault(inventoryManager, new HashSet<>());
-        customItemSet.add(customItem);
-        this.customItemHashMap.put(inventoryManager, customItemSet);
+        this.customItemHashMap.compute(inventoryManager, (key, customItemSet) -> {
+            if (customItemSet != null && customItemSet.contains(customItem)) return customItemSet;
+            Set<CustomItem> copy = customItemSet == null ? new HashSet<>() : new HashSet<>(customItemSet);
+            copy.add(customItem);
+            return Collections.unmodifiableSet(copy);
+        });
     }
 
     /**
      * Removes a {@link CustomItem} from the {@link ConcurrentHashMap}.
      * If the {@link InventoryManager} or the {@link CustomItem} is null, an {@link IllegalArgumentException} is thrown.
-     * It is synchronized to prevent {@link CustomItem}s from being duplicated.
+     * The {@link Set} of the {@link InventoryManager} is replaced atomically.
      *
      * @param inventoryManager the {@link InventoryManager} to remove the {@link CustomItem} from
      * @param customItem       the {@link CustomItem} to remove
@@ -85,20 +97,47 @@ public class CustomItemInventoryCache {
      * @see CustomItem
      * @since 1.0.0
      */
-    public synchronized void removeCustomItem(InventoryManager inventoryManager, CustomItem customItem) {
+    public void removeCustomItem(InventoryManager inventoryManager, CustomItem customItem) {
         if (inventoryManager == null || customItem == null) {
             throw new IllegalArgumentException("inventoryManager and customItem cannot be null");
         }
-        Set<CustomItem> customItemSet = this.customItemHashMap.get(inventoryManager);
-        if (customItemSet != null) {
-            customItemSet.remove(customItem);
-        }
+        this.customItemHashMap.computeIfPresent(inventoryManager, (key, customItemSet) -> {
+            if (!customItemSet.contains(customItem)) return customItemSet;
+            Set<CustomItem> copy = new HashSet<>(customItemSet);
+            copy.remove(customItem);
+            return Collections.unmodifiableSet(copy);
+        });
+    }
+
+    /**
+     * Removes and adds several {@link CustomItem}s of an {@link InventoryManager} in one step.
+     * The {@link CustomItem}s are removed first, so a {@link CustomItem} that is in both collections stays in the cache.
+     * The {@link Set} of the {@link InventoryManager} is copied and replaced only once.
+     *
+     * @param inventoryManager the {@link InventoryManager} whose {@link CustomItem}s are changed
+     * @param removed          the {@link CustomItem}s to remove
+     * @param added            the {@link CustomItem}s to add
+     * @throws IllegalArgumentException if one of the arguments is null
+     * @see #addCustomItem(InventoryManager, CustomItem)
+     * @see #removeCustomItem(InventoryManager, CustomItem)
+     * @since 1.1.0
+     */
+    public void updateCustomItems(InventoryManager inventoryManager, Collection<CustomItem> removed, Collection<CustomItem> added) {
+        if (inventoryManager == null || removed == null || added == null)
+            throw new IllegalArgumentException("inventoryManager, removed and added cannot be null");
+        if (removed.isEmpty() && added.isEmpty()) return;
+
+        this.customItemHashMap.compute(inventoryManager, (key, customItemSet) -> {
+            Set<CustomItem> copy = customItemSet == null ? new HashSet<>() : new HashSet<>(customItemSet);
+            copy.removeAll(removed);
+            copy.addAll(added);
+            return copy.isEmpty() && customItemSet == null ? null : Collections.unmodifiableSet(copy);
+        });
     }
 
     /**
      * Removes all {@link CustomItem}s from the {@link ConcurrentHashMap} that are in the {@link InventoryManager}.
      * If the {@link InventoryManager} is null, an {@link IllegalArgumentException} is thrown.
-     * It is synchronized to prevent {@link CustomItem}s from being duplicated.
      *
      * @param inventoryManager the {@link InventoryManager} to remove the {@link CustomItem}s from
      * @throws IllegalArgumentException if the {@link InventoryManager} is null
@@ -106,7 +145,7 @@ public class CustomItemInventoryCache {
      * @see CustomItem
      * @since 1.0.0
      */
-    public synchronized void removeInventoryManager(InventoryManager inventoryManager) {
+    public void removeInventoryManager(InventoryManager inventoryManager) {
         if (inventoryManager == null) {
             throw new IllegalArgumentException("inventoryManager cannot be null");
         }
@@ -116,7 +155,6 @@ public class CustomItemInventoryCache {
     /**
      * Returns a {@link Set} of {@link CustomItem}s that are in the {@link InventoryManager}.
      * If the {@link InventoryManager} is null, an {@link IllegalArgumentException} is thrown.
-     * It is synchronized to prevent {@link CustomItem}s from being duplicated.
      *
      * @param inventoryManager the {@link InventoryManager} to get the {@link CustomItem}s from
      * @return a {@link Set} of {@link CustomItem}s that are in the {@link InventoryManager}
@@ -125,10 +163,33 @@ public class CustomItemInventoryCache {
      * @see CustomItem
      * @since 1.0.0
      */
-    public synchronized boolean containsInventoryManager(InventoryManager inventoryManager) {
+    public boolean containsInventoryManager(InventoryManager inventoryManager) {
         if (inventoryManager == null) {
             throw new IllegalArgumentException("inventoryManager cannot be null");
         }
         return this.customItemHashMap.containsKey(inventoryManager);
     }
+
+    /**
+     * Returns the number of {@link CustomItem}s in all {@link InventoryManager}s.
+     *
+     * @return the number of cached {@link CustomItem}s
+     * @since 1.1.0
+     */
+    public int getCustomItemCount() {
+        int count = 0;
+        for (Set<CustomItem> customItemSet : this.customItemHashMap.values()) {
+            count += customItemSet.size();
+        }
+        return count;
+    }
+
+    /**
+     * Removes all {@link InventoryManager}s and their {@link CustomItem}s from the {@link ConcurrentHashMap}.
+     *
+     * @since 1.1.0
+     */
+    public void clear() {
+        this.customItemHashMap.clear();
+    }
 }
@@ -0,0 +1,191 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemFlag;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * This class describes an icon by its material, name, lore, flags and custom model data.
+ * Two icons with the same description are equal, so the {@link IconFactory} builds each icon only once.
+ * <pre>{@code
+ * CachedIcon border = new Icon(Material.GRAY_STAINED_GLASS_PANE).name(" ").build();
+ * }</pre>
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see IconFactory
+ * @see CachedIcon
+ */
+public class Icon {
+
+    private final Material material;
+    private String name;
+    private List<String> lore;
+    private Set<ItemFlag> flags;
+    private Integer customModelData;
+
+    /**
+     * Creates a new icon with the given material.
+     *
+     * @param material The material of the icon.
+     * @throws IllegalArgumentException if material is null.
+     * @since 1.1.0
+     */
+    public Icon(Material material) {
+        if (material == null) throw new IllegalArgumentException("material cannot be null");
+        this.material = material;
+        this.lore = Collections.emptyList();
+        this.flags = EnumSet.noneOf(ItemFlag.class);
+    }
+
+    /**
+     * Sets the display name of the icon.
+     *
+     * @param name The display name.
+     * @return This icon.
+     * @since 1.1.0
+     */
+    public Icon name(String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * Sets the lore of the icon.
+     *
+     * @param lore The lines of the lore.
+     * @return This icon.
+     * @since 1.1.0
+     */
+    public Icon lore(String... lore) {
+        return lore(Arrays.asList(lore));
+    }
+
+    /**
+     * Sets the lore of the icon.
+     *
+     * @param lore The lines of the lore.
+     * @return This icon.
+     * @since 1.1.0
+     */
+    public Icon lore(List<String> lore) {
+        this.lore = lore == null ? Collections.<String>emptyList() : new ArrayList<>(lore);
+        return this;
+    }
+
+    /**
+     * Adds flags to the icon.
+     *
+     * @param flags The flags which should be added.
+     * @return This icon.
+     * @since 1.1.0
+     */
+    public Icon flags(ItemFlag... flags) {
+        this.flags.addAll(Arrays.asList(flags));
+        return this;
+    }
+
+    /**
+     * Sets the custom model data of the icon.
+     *
+     * @param customModelData The custom model data or null to remove it.
+     * @return This icon.
+     * @since 1.1.0
+     */
+    public Icon customModelData(Integer customModelData) {
+        this.customModelData = customModelData;
+        return this;
+    }
+
+    /**
+     * Returns the shared {@link CachedIcon} of this description from the {@link IconFactory}.
+     *
+     * @return The {@link CachedIcon}.
+     * @see IconFactory#get(Icon)
+     * @since 1.1.0
+     */
+    public CachedIcon build() {
+        return IconFactory.getInstance().get(this);
+    }
+
+    /**
+     * Returns the material of the icon.
+     *
+     * @return The material.
+     * @since 1.1.0
+     */
+    public Material getMaterial() {
+        return material;
+    }
+
+    /**
+     * Returns the display name of the icon.
+     *
+     * @return The display name or null if the icon has no display name.
+     * @since 1.1.0
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the lore of the icon.
+     *
+     * @return An unmodifiable view of the lines of the lore.
+     * @since 1.1.0
+     */
+    public List<String> getLore() {
+        return Collections.unmodifiableList(lore);
+    }
+
+    /**
+     * Returns the flags of the icon.
+     *
+     * @return An unmodifiable view of the flags.
+     * @since 1.1.0
+     */
+    public Set<ItemFlag> getFlags() {
+        return Collections.unmodifiableSet(flags);
+    }
+
+    /**
+     * Returns the custom model data of the icon.
+     *
+     * @return The custom model data or null if the icon has none.
+     * @since 1.1.0
+     */
+    public Integer getCustomModelData() {
+        return customModelData;
+    }
+
+    Icon copy() {
+        Icon copy = new Icon(material);
+        copy.name = name;
+        copy.lore = new ArrayList<>(lore);
+        copy.flags = EnumSet.noneOf(ItemFlag.class);
+        copy.flags.addAll(flags);
+        copy.customModelData = customModelData;
+        return copy;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) return true;
+        if (!(object instanceof Icon)) return false;
+        Icon icon = (Icon) object;
+        return material == icon.material && Objects.equals(name, icon.name) && lore.equals(icon.lore)
+                && flags.equals(icon.flags) && Objects.equals(customModelData, icon.customModelData);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(material, name, lore, flags, customModelData);
+    }
+}
@@ -0,0 +1,136 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class builds the {@link ItemStack}s of {@link Icon}s and interns them in a bounded LRU cache.
+ * Each icon is built only once, every following request returns the same {@link CachedIcon},
+ * so static icons like borders, filler panes or navigation arrows cost nothing after the first build.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see Icon
+ * @see CachedIcon
+ */
+public class IconFactory {
+
+    private static final IconFactory instance = new IconFactory(512);
+
+    private final LinkedHashMap<Icon, CachedIcon> cache;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    /**
+     * Creates a new {@link IconFactory} with the given capacity.
+     *
+     * @param capacity The maximum number of cached icons.
+     * @since 1.1.0
+     */
+    public IconFactory(int capacity) {
+        this.cache = new LinkedHashMap<Icon, CachedIcon>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Icon, CachedIcon> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    /**
+     * Returns the shared {@link IconFactory} instance.
+     *
+     * @return the shared {@link IconFactory} instance
+     * @since 1.1.0
+     */
+    public static IconFactory getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns the {@link CachedIcon} of the given {@link Icon} and builds it if it is not cached yet.
+     *
+     * @param icon The {@link Icon} which should be built.
+     * @return The {@link CachedIcon}.
+     * @throws IllegalArgumentException if icon is null.
+     * @since 1.1.0
+     */
+    public CachedIcon get(Icon icon) {
+        if (icon == null) throw new IllegalArgumentException("icon cannot be null");
+        synchronized (cache) {
+            CachedIcon cachedIcon = cache.get(icon);
+            if (cachedIcon != null) {
+                hits.increment();
+                return cachedIcon;
+            }
+        }
+        misses.increment();
+        Icon key = icon.copy();
+        CachedIcon cachedIcon = new CachedIcon(key, build(key));
+        synchronized (cache) {
+            CachedIcon existing = cache.putIfAbsent(key, cachedIcon);
+            return existing != null ? existing : cachedIcon;
+        }
+    }
+
+    /**
+     * Returns the number of requests that were answered from the cache.
+     *
+     * @return The number of cache hits.
+     * @since 1.1.0
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of requests that had to build an icon.
+     *
+     * @return The number of cache misses.
+     * @since 1.1.0
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of cached icons.
+     *
+     * @return The number of cached icons.
+     * @since 1.1.0
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Removes all icons from the cache.
+     *
+     * @since 1.1.0
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private static ItemStack build(Icon icon) {
+        ItemStack itemStack = new ItemStack(icon.getMaterial());
+        ItemMeta itemMeta = itemStack.getItemMeta();
+        if (itemMeta == null) return itemStack;
+        if (icon.getName() != null) itemMeta.setDisplayName(icon.getName());
+        if (!icon.getLore().isEmpty()) itemMeta.setLore(icon.getLore());
+        if (!icon.getFlags().isEmpty()) itemMeta.addItemFlags(icon.getFlags().toArray(new ItemFlag[0]));
+        if (icon.getCustomModelData() != null) itemMeta.setCustomModelData(icon.getCustomModelData());
+        itemStack.setItemMeta(itemMeta);
+        return itemStack;
+    }
+}
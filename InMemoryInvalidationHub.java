@@ -0,0 +1,74 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * This class is used to connect several {@link InvalidationBus}es in the same JVM, for example to simulate
+ * several servers in a test. Every batch that is sent by one of the connected transports is delivered to all of them.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see InvalidationTransport
+ */
+public class InMemoryInvalidationHub {
+
+    private final List<Node> nodes;
+
+    /**
+     * Creates a new {@link InMemoryInvalidationHub} without any connected transports.
+     *
+     * @since 1.1.0
+     */
+    public InMemoryInvalidationHub() {
+        this.nodes = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Creates a new {@link InvalidationTransport} which is connected to this hub.
+     *
+     * @return The connected {@link InvalidationTransport}.
+     * @since 1.1.0
+     */
+    public InvalidationTransport connect() {
+        Node node = new Node();
+        nodes.add(node);
+        return node;
+    }
+
+    /**
+     * Returns the number of connected transports.
+     *
+     * @return The number of connected transports.
+     * @since 1.1.0
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    private final class Node implements InvalidationTransport {
+
+        private volatile Consumer<Collection<String>> receiver;
+
+        @Override
+        public void send(Collection<String> keys) {
+            if (!nodes.contains(this)) return;
+            for (Node node : nodes) {
+                Consumer<Collection<String>> receiver = node.receiver;
+                if (receiver != null) receiver.accept(keys);
+            }
+        }
+
+        @Override
+        public void setReceiver(Consumer<Collection<String>> receiver) {
+            this.receiver = receiver;
+        }
+
+        @Override
+        public void close() {
+            nodes.remove(this);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is used to update open {@link InventoryManager}s when the data they show changes, also on other servers.
+ * {@link InventoryManager}s subscribe to keys like {@code clan:<id>} with {@link InventoryManager#subscribe(String)}.
+ * When a key is published with {@link #publish(String)}, all subscribed {@link InventoryManager}s on all servers are invalidated.
+ * <br>
+ * The published keys are collected and sent once per tick through the {@link InvalidationTransport}, so a key that is
+ * published many times in one tick is only sent once. The received keys are collected as well, and each
+ * {@link InventoryManager} is invalidated at most once per tick, even if several of its keys arrive.
+ * The invalidation itself is queued in the {@link MenuScheduler}.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see InventoryManager#subscribe(String)
+ * @see InvalidationTransport
+ * @see InventoryApiRegister#getInvalidationBus()
+ */
+public class InvalidationBus implements Runnable {
+
+    private final Map<String, Set<InventoryManager>> subscriptions;
+    private final Set<String> outgoing;
+    private final ConcurrentLinkedQueue<Collection<String>> incoming;
+    private final LongAdder publishedKeys;
+    private final LongAdder sentBatches;
+    private final LongAdder receivedKeys;
+    private final LongAdder invalidatedInventories;
+    private volatile InvalidationTransport transport;
+
+    /**
+     * Creates a new {@link InvalidationBus} with the given {@link InvalidationTransport}.
+     *
+     * @param transport The {@link InvalidationTransport} of the bus.
+     * @see InvalidationTransport#loopback()
+     * @since 1.1.0
+     */
+    public InvalidationBus(InvalidationTransport transport) {
+        this.subscriptions = new ConcurrentHashMap<>();
+        this.outgoing = ConcurrentHashMap.newKeySet();
+        this.incoming = new ConcurrentLinkedQueue<>();
+        this.publishedKeys = new LongAdder();
+        this.sentBatches = new LongAdder();
+        this.receivedKeys = new LongAdder();
+        this.invalidatedInventories = new LongAdder();
+        setTransport(transport);
+    }
+
+    /**
+     * Publishes a key. All {@link InventoryManager}s that subscribed to the key are invalidated on one of the next ticks.
+     * This method can be called from any thread.
+     *
+     * @param key The key whose data changed.
+     * @since 1.1.0
+     */
+    public void publish(String key) {
+        if (outgoing.add(key)) publishedKeys.increment();
+    }
+
+    /**
+     * Replaces the {@link InvalidationTransport}. The previous {@link InvalidationTransport} is closed.
+     *
+     * @param transport The new {@link InvalidationTransport}.
+     * @throws IllegalArgumentException if transport is null.
+     * @since 1.1.0
+     */
+    public void setTransport(InvalidationTransport transport) {
+        if (transport == null) throw new IllegalArgumentException("transport cannot be null");
+        InvalidationTransport previous = this.transport;
+        transport.setReceiver(incoming::add);
+        this.transport = transport;
+        if (previous != null) previous.close();
+    }
+
+    /**
+     * Returns the {@link InvalidationTransport} of this bus.
+     *
+     * @return The {@link InvalidationTransport}.
+     * @since 1.1.0
+     */
+    public InvalidationTransport getTransport() {
+        return transport;
+    }
+
+    @Override
+    public void run() {
+        if (!outgoing.isEmpty()) {
+            List<String> batch = new ArrayList<>(outgoing.size());
+            Iterator<String> iterator = outgoing.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+            sentBatches.increment();
+            transport.send(Collections.unmodifiableList(batch));
+        }
+        Set<InventoryManager> invalidated = new LinkedHashSet<>();
+        Collection<String> keys;
+        while ((keys = incoming.poll()) != null) {
+            for (String key : keys) {
+                receivedKeys.increment();
+                Set<InventoryManager> subscribers = subscriptions.get(key);
+                if (subscribers != null) invalidated.addAll(subscribers);
+            }
+        }
+        for (InventoryManager inventoryManager : invalidated) {
+            invalidatedInventories.increment();
+            InventoryApiRegister.getScheduler().schedule(inventoryManager, inventoryManager::onInvalidated);
+        }
+    }
+
+    /**
+     * Closes the {@link InvalidationTransport} and removes all subscriptions.
+     *
+     * @since 1.1.0
+     */
+    public void close() {
+        transport.close();
+        subscriptions.clear();
+        outgoing.clear();
+        incoming.clear();
+    }
+
+    /**
+     * Returns the number of subscribed keys.
+     *
+     * @return The number of subscribed keys.
+     * @since 1.1.0
+     */
+    public int getSubscribedKeyCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Returns the number of keys that were published on this server. Keys that were published again in the same tick are not counted.
+     *
+     * @return The number of published keys.
+     * @since 1.1.0
+     */
+    public long getPublishedKeys() {
+        return publishedKeys.sum();
+    }
+
+    /**
+     * Returns the number of batches that were sent.
+     *
+     * @return The number of sent batches.
+     * @since 1.1.0
+     */
+    public long getSentBatches() {
+        return sentBatches.sum();
+    }
+
+    /**
+     * Returns the number of keys that were received from all servers.
+     *
+     * @return The number of received keys.
+     * @since 1.1.0
+     */
+    public long getReceivedKeys() {
+        return receivedKeys.sum();
+    }
+
+    /**
+     * Returns the number of invalidations of {@link InventoryManager}s.
+     *
+     * @return The number of invalidated {@link InventoryManager}s.
+     * @since 1.1.0
+     */
+    public long getInvalidatedInventories() {
+        return invalidatedInventories.sum();
+    }
+
+    void subscribe(String key, InventoryManager inventoryManager) {
+        subscriptions.compute(key, (k, subscribers) -> {
+            if (subscribers == null) subscribers = ConcurrentHashMap.newKeySet();
+            subscribers.add(inventoryManager);
+            return subscribers;
+        });
+    }
+
+    void unsubscribe(String key, InventoryManager inventoryManager) {
+        subscriptions.computeIfPresent(key, (k, subscribers) -> {
+            subscribers.remove(inventoryManager);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * This interface is used to deliver the invalidated keys of the {@link InvalidationBus} to all servers.
+ * A transport must deliver every batch that is sent to the receivers of all servers, including the server that sent it.
+ * The receiver may be called on any thread.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see InvalidationBus
+ * @see InMemoryInvalidationHub
+ * @see SocketInvalidationTransport
+ */
+public interface InvalidationTransport {
+
+    /**
+     * Sends a batch of invalidated keys to all servers.
+     *
+     * @param keys The invalidated keys. The collection must not be changed afterwards.
+     * @since 1.1.0
+     */
+    void send(Collection<String> keys);
+
+    /**
+     * Sets the receiver which is called with every batch of invalidated keys that arrives.
+     *
+     * @param receiver The receiver of the batches.
+     * @since 1.1.0
+     */
+    void setReceiver(Consumer<Collection<String>> receiver);
+
+    /**
+     * Closes the transport. Batches that are sent afterwards are discarded.
+     *
+     * @since 1.1.0
+     */
+    default void close() {
+    }
+
+    /**
+     * Creates an {@link InvalidationTransport} for a single server. Every batch is delivered to the own receiver only.
+     *
+     * @return The {@link InvalidationTransport}.
+     * @since 1.1.0
+     */
+    static InvalidationTransport loopback() {
+        return new InvalidationTransport() {
+
+            private volatile Consumer<Collection<String>> receiver;
+
+            @Override
+            public void send(Collection<String> keys) {
+                Consumer<Collection<String>> receiver = this.receiver;
+                if (receiver != null) receiver.accept(keys);
+            }
+
+            @Override
+            public void setReceiver(Consumer<Collection<String>> receiver) {
+                this.receiver = receiver;
+            }
+        };
+    }
+}
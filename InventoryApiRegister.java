@@ -2,11 +2,25 @@ package net.splatcrafter.clansystem.api.inventorymanager;
 
 import de.splatcrafter.clansystem.ClanSystem;
 import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This class is used to register the InventoryAPI.
  * It only registers the events and creates the cache.
  * This class is with the only one you need to register in your Main class.
+ * Call {@link #shutdown()} in the onDisable method of your Main class.
  *
  * @author Splatcrafter
  * @version 1.0.0
@@ -14,22 +28,256 @@ import org.bukkit.Bukkit;
  * @see InventoryClickListener
  * @see CustomInventoryCache
  * @see CustomItemInventoryCache
+ * @see SharedInventoryCache
+ * @see InventorySweeper
+ * @see MenuScheduler
+ * @see VaultStore
+ * @see MenuRegistry
+ * @see InvalidationBus
+ * @see InventoryApiSettings
  */
 public class InventoryApiRegister {
 
     private static CustomInventoryCache customInventoryCache;
+    private static SharedInventoryCache sharedInventoryCache;
+    private static ClanSystem plugin;
+    private static ExecutorService workerPool;
+    private static ExecutorService clickExecutor;
+    private static ClickThrottle clickThrottle;
+    private static InventoryMetrics metrics;
+    private static InventorySweeper sweeper;
+    private static BukkitTask sweeperTask;
+    private static MenuNavigator navigator;
+    private static MenuScheduler scheduler;
+    private static BukkitTask schedulerTask;
+    private static VaultStore vaultStore;
+    private static MenuRegistry menuRegistry;
+    private static InvalidationBus invalidationBus;
+    private static BukkitTask invalidationTask;
     private CustomItemInventoryCache customItemInventoryCache;
-    private ClanSystem plugin;
 
     public InventoryApiRegister(ClanSystem plugin) {
-        this.plugin = plugin;
+        this(plugin, new InventoryApiSettings());
+    }
+
+    /**
+     * Registers the InventoryAPI with the given settings.
+     *
+     * @param plugin   The plugin which registers the InventoryAPI.
+     * @param settings The {@link InventoryApiSettings} of the InventoryAPI.
+     * @since 1.1.0
+     */
+    public InventoryApiRegister(ClanSystem plugin, InventoryApiSettings settings) {
+        InventoryApiRegister.plugin = plugin;
         customInventoryCache = new CustomInventoryCache();
+        sharedInventoryCache = new SharedInventoryCache();
         customItemInventoryCache = new CustomItemInventoryCache();
-        Bukkit.getPluginManager().registerEvents(new InventoryListener(), this.plugin);
-        Bukkit.getPluginManager().registerEvents(new InventoryClickListener(), this.plugin);
+        metrics = new InventoryMetrics();
+        navigator = new MenuNavigator(settings.getNavigatorMaxCachedSlots(), settings.getNavigatorTtlMillis());
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        workerPool = Executors.newFixedThreadPool(threads, threadFactory("InventoryManager-Worker-"));
+        clickExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(256), threadFactory("InventoryManager-Click-"));
+        Bukkit.getPluginManager().registerEvents(new InventoryListener(), plugin);
+        Bukkit.getPluginManager().registerEvents(new InventoryClickListener(), plugin);
+        scheduler = new MenuScheduler(settings.getSchedulerBudgetNanos());
+        schedulerTask = Bukkit.getScheduler().runTaskTimer(plugin, scheduler, 1, 1);
+        invalidationBus = new InvalidationBus(InvalidationTransport.loopback());
+        invalidationTask = Bukkit.getScheduler().runTaskTimer(plugin, invalidationBus, 1, 1);
+        menuRegistry = new MenuRegistry(new File(plugin.getDataFolder(), "menus"));
+        menuRegistry.reload();
+        menuRegistry.watch();
+        vaultStore = new VaultStore(new File(plugin.getDataFolder(), "vaults"), settings.getVaultFlushIntervalMillis());
+        sweeper = new InventorySweeper(settings.getSweeperGraceMillis());
+        sweeperTask = Bukkit.getScheduler().runTaskTimer(plugin, sweeper, 600, 600);
+    }
+
+    public static ClanSystem getPlugin() {
+        return plugin;
     }
 
     public static CustomInventoryCache getCustomInventoryCache() {
         return customInventoryCache;
     }
+
+    public static SharedInventoryCache getSharedInventoryCache() {
+        return sharedInventoryCache;
+    }
+
+    /**
+     * Returns the {@link InventoryMetrics} of the InventoryAPI.
+     *
+     * @return The {@link InventoryMetrics}.
+     * @since 1.1.0
+     */
+    public static InventoryMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the {@link InvalidationBus}. It only reaches this server until an {@link InvalidationTransport}
+     * for several servers is set with {@link InvalidationBus#setTransport(InvalidationTransport)}.
+     *
+     * @return The {@link InvalidationBus}.
+     * @since 1.1.0
+     */
+    public static InvalidationBus getInvalidationBus() {
+        return invalidationBus;
+    }
+
+    /**
+     * Returns the {@link MenuRegistry} with the menus of the menus folder of the plugin.
+     *
+     * @return The {@link MenuRegistry}.
+     * @since 1.1.0
+     */
+    public static MenuRegistry getMenuRegistry() {
+        return menuRegistry;
+    }
+
+    /**
+     * Returns the {@link VaultStore} which stores the contents of {@link VaultInventoryManager}s
+     * in the vaults folder of the plugin.
+     *
+     * @return The {@link VaultStore}.
+     * @since 1.1.0
+     */
+    public static VaultStore getVaultStore() {
+        return vaultStore;
+    }
+
+    /**
+     * Returns the {@link MenuScheduler} which spreads refresh, build and teardown jobs over the ticks.
+     *
+     * @return The {@link MenuScheduler}.
+     * @since 1.1.0
+     */
+    public static MenuScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Returns the {@link MenuNavigator} which keeps the navigation stack and the recently closed menus of each player.
+     *
+     * @return The {@link MenuNavigator}.
+     * @since 1.1.0
+     */
+    public static MenuNavigator getNavigator() {
+        return navigator;
+    }
+
+    /**
+     * Returns the {@link InventorySweeper} which reclaims stale inventories every 30 seconds.
+     *
+     * @return The {@link InventorySweeper}.
+     * @since 1.1.0
+     */
+    public static InventorySweeper getSweeper() {
+        return sweeper;
+    }
+
+    /**
+     * Returns the {@link ClickThrottle} that is applied to all inventories.
+     *
+     * @return The {@link ClickThrottle} or null if no throttle is set.
+     * @since 1.1.0
+     */
+    public static ClickThrottle getClickThrottle() {
+        return clickThrottle;
+    }
+
+    /**
+     * Sets the {@link ClickThrottle} that is applied to all inventories.
+     *
+     * @param clickThrottle The {@link ClickThrottle} or null to disable it.
+     * @since 1.1.0
+     */
+    public static void setClickThrottle(ClickThrottle clickThrottle) {
+        InventoryApiRegister.clickThrottle = clickThrottle;
+    }
+
+    /**
+     * Returns the worker pool that is used to build inventory contents off the main thread.
+     *
+     * @return The worker pool.
+     * @see AsyncInventoryManager
+     * @since 1.1.0
+     */
+    public static ExecutorService getWorkerPool() {
+        return workerPool;
+    }
+
+    /**
+     * Returns the bounded executor that runs the handlers of {@link AsyncCustomItem}s.
+     * If its queue is full, new tasks are rejected.
+     *
+     * @return The click executor.
+     * @see AsyncCustomItem
+     * @since 1.1.0
+     */
+    public static ExecutorService getClickExecutor() {
+        return clickExecutor;
+    }
+
+    /**
+     * Tears the InventoryAPI down. It must be called in the onDisable method of your Main class.
+     * It closes all open inventories, clears all caches and stops the worker pool and the click executor.
+     * Contents that are still loading are discarded, changes of vaults are written before this method returns.
+     *
+     * @since 1.1.0
+     */
+    public static void shutdown() {
+        if (sweeperTask != null) {
+            sweeperTask.cancel();
+            sweeperTask = null;
+        }
+        if (schedulerTask != null) {
+            schedulerTask.cancel();
+            schedulerTask = null;
+        }
+        if (invalidationTask != null) {
+            invalidationTask.cancel();
+            invalidationTask = null;
+        }
+        if (customInventoryCache != null) {
+            for (Map.Entry<UUID, InventoryManager> entry : customInventoryCache.getInventories().entrySet()) {
+                Player player = Bukkit.getPlayer(entry.getKey());
+                if (player != null && entry.getValue().getInventory().equals(player.getOpenInventory().getTopInventory())) {
+                    player.closeInventory();
+                }
+                entry.getValue().handleClose(entry.getKey());
+            }
+            customInventoryCache.clear();
+        }
+        if (sharedInventoryCache != null) {
+            sharedInventoryCache.clear();
+        }
+        if (vaultStore != null) {
+            vaultStore.shutdown();
+        }
+        if (menuRegistry != null) {
+            menuRegistry.close();
+        }
+        if (invalidationBus != null) {
+            invalidationBus.close();
+        }
+        if (CustomItemInventoryCache.getInstance() != null) {
+            CustomItemInventoryCache.getInstance().clear();
+        }
+        if (workerPool != null) {
+            workerPool.shutdownNow();
+        }
+        if (clickExecutor != null) {
+            clickExecutor.shutdownNow();
+        }
+    }
+
+    static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
 }
@@ -0,0 +1,108 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class holds the settings of the InventoryAPI which are applied when the {@link InventoryApiRegister} is created.
+ * All setters return the settings, so they can be chained. Settings that are not set keep their default value.
+ *
+ * <pre>{@code
+ * new InventoryApiRegister(this, new InventoryApiSettings()
+ *         .setNavigatorCache(54 * 4, 120000)
+ *         .setVaultFlushInterval(2000));
+ * }</pre>
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see InventoryApiRegister#InventoryApiRegister(de.splatcrafter.clansystem.ClanSystem, InventoryApiSettings)
+ */
+public class InventoryApiSettings {
+
+    private int navigatorMaxCachedSlots = 54 * 8;
+    private long navigatorTtlMillis = 300000;
+    private long schedulerBudgetNanos = TimeUnit.MILLISECONDS.toNanos(2);
+    private long vaultFlushIntervalMillis = 5000;
+    private long sweeperGraceMillis = 60000;
+
+    /**
+     * Sets the size of the cache of recently closed menus of the {@link MenuNavigator}.
+     * The size is counted in slots, so the default of 432 slots holds for example eight menus with 54 slots
+     * or 16 menus with 27 slots per player.
+     *
+     * @param maxCachedSlots The maximum number of slots of all cached menus of a player. The default is 432.
+     * @param ttlMillis      The time in milliseconds a closed menu stays in the cache. The default is 300000.
+     * @return These settings.
+     * @throws IllegalArgumentException if maxCachedSlots is negative or ttlMillis is not positive.
+     * @since 1.1.0
+     */
+    public InventoryApiSettings setNavigatorCache(int maxCachedSlots, long ttlMillis) {
+        if (maxCachedSlots < 0 || ttlMillis <= 0)
+            throw new IllegalArgumentException("maxCachedSlots must not be negative and ttlMillis must be positive");
+        this.navigatorMaxCachedSlots = maxCachedSlots;
+        this.navigatorTtlMillis = ttlMillis;
+        return this;
+    }
+
+    /**
+     * Sets the time the {@link MenuScheduler} may use per tick.
+     * It can be changed later with {@link MenuScheduler#setBudgetNanos(long)}.
+     *
+     * @param budgetNanos The budget in nanoseconds. The default is 2 milliseconds.
+     * @return These settings.
+     * @throws IllegalArgumentException if budgetNanos is not positive.
+     * @since 1.1.0
+     */
+    public InventoryApiSettings setSchedulerBudgetNanos(long budgetNanos) {
+        if (budgetNanos <= 0) throw new IllegalArgumentException("budgetNanos must be positive");
+        this.schedulerBudgetNanos = budgetNanos;
+        return this;
+    }
+
+    /**
+     * Sets the interval in which the {@link VaultStore} writes the collected changes of the vaults.
+     *
+     * @param flushIntervalMillis The interval in milliseconds. The default is 5000.
+     * @return These settings.
+     * @throws IllegalArgumentException if flushIntervalMillis is not positive.
+     * @since 1.1.0
+     */
+    public InventoryApiSettings setVaultFlushInterval(long flushIntervalMillis) {
+        if (flushIntervalMillis <= 0) throw new IllegalArgumentException("flushIntervalMillis must be positive");
+        this.vaultFlushIntervalMillis = flushIntervalMillis;
+        return this;
+    }
+
+    /**
+     * Sets the time in which the {@link InventorySweeper} does not reclaim a new {@link InventoryManager}.
+     *
+     * @param graceMillis The grace period in milliseconds. The default is 60000.
+     * @return These settings.
+     * @throws IllegalArgumentException if graceMillis is negative.
+     * @since 1.1.0
+     */
+    public InventoryApiSettings setSweeperGrace(long graceMillis) {
+        if (graceMillis < 0) throw new IllegalArgumentException("graceMillis must not be negative");
+        this.sweeperGraceMillis = graceMillis;
+        return this;
+    }
+
+    int getNavigatorMaxCachedSlots() {
+        return navigatorMaxCachedSlots;
+    }
+
+    long getNavigatorTtlMillis() {
+        return navigatorTtlMillis;
+    }
+
+    long getSchedulerBudgetNanos() {
+        return schedulerBudgetNanos;
+    }
+
+    long getVaultFlushIntervalMillis() {
+        return vaultFlushIntervalMillis;
+    }
+
+    long getSweeperGraceMillis() {
+        return sweeperGraceMillis;
+    }
+}
@@ -2,33 +2,108 @@ package net.splatcrafter.clansystem.api.inventorymanager;
 
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryAction;
 import org.bukkit.event.inventory.InventoryClickEvent;
 
-import java.util.Optional;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
 
 public class InventoryClickListener implements Listener {
 
+    /**
+     * The actions of a click in the bottom inventory that can move items of the top inventory.
+     * {@link InventoryAction#UNKNOWN} is included, because the server does not tell which slots it changes.
+     */
+    private static final Set<InventoryAction> TOP_INVENTORY_ACTIONS = Collections.unmodifiableSet(EnumSet.of(
+            InventoryAction.MOVE_TO_OTHER_INVENTORY, InventoryAction.COLLECT_TO_CURSOR, InventoryAction.UNKNOWN));
+
     @EventHandler
     public void onInventoryClick(InventoryClickEvent event) {
-        if (event.getWhoClicked() instanceof Player) {
-            Player player = (Player) event.getWhoClicked();
-            Optional<InventoryManager> inventoryManagerOptional = InventoryApiRegister.getCustomInventoryCache().getInventory(player);
-            inventoryManagerOptional.ifPresent(inventoryManager -> {
-                if (inventoryManager.getInventory().equals(event.getClickedInventory())) {
-                    event.setCancelled(inventoryManager.canceled);
-                    if (event.getCurrentItem() != null && event.getCurrentItem().getType() != null) {
-                        Optional<CustomItem> customItemOptional = CustomItemInventoryCache.getInstance().getCustomItemHashMap().keySet().stream()
-                                .filter(inventoryManager::equals)
-                                .flatMap(customItem -> CustomItemInventoryCache.getInstance().getCustomItemHashMap().get(customItem).stream())
-                                .filter(customItem -> event.getCurrentItem().getType().equals(customItem.itemStack.getType())
-                                        && event.getCurrentItem().getItemMeta().getDisplayName().equals(customItem.itemStack.getItemMeta().getDisplayName())
-                                        && (event.getSlot() == customItem.slot || customItem.slot == -1))
-                                .findFirst();
-                        customItemOptional.ifPresent(customItem -> customItem.onClick(event));
-                    }
-                }
-            });
+        InventoryManager inventoryManager = InventoryManager.of(event.getInventory());
+        if (inventoryManager == null || !(event.getWhoClicked() instanceof Player)) return;
+        InventoryMetrics metrics = InventoryApiRegister.getMetrics();
+        boolean timed = metrics.isEnabled();
+        long start = timed ? System.nanoTime() : 0;
+        inventoryManager.onContentsClicked(event);
+        int rawSlot = event.getRawSlot();
+        if (rawSlot < 0 || rawSlot >= inventoryManager.getSize()) {
+            if (timed) metrics.recordIgnoredClick();
+            return;
+        }
+        event.setCancelled(inventoryManager.canceled);
+        CustomItem customItem = event.getCurrentItem() == null ? null : inventoryManager.getCustomItem(rawSlot);
+        if (customItem == null || (inventoryManager.isFingerprintCheck()
+                && !inventoryManager.verify(rawSlot, customItem, event.getCurrentItem()))) {
+            if (timed) metrics.recordIgnoredClick();
+            return;
+        }
+        UUID uuid = event.getWhoClicked().getUniqueId();
+        ClickThrottle coalescer = coalescer(inventoryManager, customItem);
+        if (coalescer != null && coalescer.mergePending(uuid, inventoryManager, rawSlot, event)) {
+            event.setCancelled(true);
+            if (timed) metrics.recordIgnoredClick();
+            return;
+        }
+        if (isThrottled(uuid, inventoryManager, customItem)) {
+            event.setCancelled(true);
+            if (timed) metrics.recordIgnoredClick();
+            return;
+        }
+        if (coalescer != null) {
+            event.setCancelled(true);
+            coalescer.startPending(uuid, inventoryManager, rawSlot, event,
+                    pendingEvent -> dispatchPending(uuid, inventoryManager, rawSlot, customItem, pendingEvent));
+            return;
+        }
+        dispatch(inventoryManager, customItem, event, start);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClickMonitor(InventoryClickEvent event) {
+        InventoryManager inventoryManager = InventoryManager.of(event.getInventory());
+        if (inventoryManager == null || !inventoryManager.isFingerprintCheck()) return;
+        int rawSlot = event.getRawSlot();
+        if (rawSlot < 0 || (rawSlot >= inventoryManager.getSize() && !TOP_INVENTORY_ACTIONS.contains(event.getAction()))) return;
+        inventoryManager.markMoved();
+    }
+
+    private void dispatchPending(UUID uuid, InventoryManager inventoryManager, int rawSlot, CustomItem customItem, InventoryClickEvent event) {
+        if (inventoryManager.getCustomItem(rawSlot) != customItem
+                || InventoryApiRegister.getCustomInventoryCache().getInventory(uuid).orElse(null) != inventoryManager) return;
+        dispatch(inventoryManager, customItem, event, System.nanoTime());
+    }
+
+    private void dispatch(InventoryManager inventoryManager, CustomItem customItem, InventoryClickEvent event, long start) {
+        InventoryMetrics metrics = InventoryApiRegister.getMetrics();
+        boolean timed = metrics.isEnabled();
+        inventoryManager.markClicked();
+        long handlerStart = timed ? System.nanoTime() : 0;
+        customItem.onClick(event);
+        if (timed) {
+            long end = System.nanoTime();
+            metrics.recordClick(inventoryManager, customItem, end - start, end - handlerStart);
         }
     }
+
+    private ClickThrottle coalescer(InventoryManager inventoryManager, CustomItem customItem) {
+        ClickThrottle clickThrottle = customItem.getClickThrottle();
+        if (clickThrottle != null && clickThrottle.isCoalescing()) return clickThrottle;
+        clickThrottle = inventoryManager.getClickThrottle();
+        if (clickThrottle != null && clickThrottle.isCoalescing()) return clickThrottle;
+        clickThrottle = InventoryApiRegister.getClickThrottle();
+        return clickThrottle != null && clickThrottle.isCoalescing() ? clickThrottle : null;
+    }
+
+    private boolean isThrottled(UUID uuid, InventoryManager inventoryManager, CustomItem customItem) {
+        ClickThrottle clickThrottle = InventoryApiRegister.getClickThrottle();
+        if (clickThrottle != null && !clickThrottle.tryClick(uuid)) return true;
+        clickThrottle = inventoryManager.getClickThrottle();
+        if (clickThrottle != null && !clickThrottle.tryClick(uuid)) return true;
+        clickThrottle = customItem.getClickThrottle();
+        return clickThrottle != null && !clickThrottle.tryClick(uuid);
+    }
 }
@@ -2,8 +2,10 @@ package net.splatcrafter.clansystem.api.inventorymanager;
 
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
 import org.bukkit.event.player.PlayerKickEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.Inventory;
@@ -27,6 +29,8 @@ public class InventoryListener implements Listener {
 
     /**
      * This method is used to remove the inventory from the cache when the player closes the inventory.
+     * Inventories that are not held by an {@link InventoryManager} are rejected without a cache lookup,
+     * and inventories that are not chests are rejected without asking for their holder.
      *
      * @param event The event that is called when the player closes the inventory.
      * @see InventoryCloseEvent
@@ -38,24 +42,52 @@ public class InventoryListener implements Listener {
      */
     @EventHandler
     public void onInventoryClose(InventoryCloseEvent event) {
+        InventoryManager inventoryManager = InventoryManager.of(event.getInventory());
+        if (inventoryManager == null) return;
         if (event.getPlayer() instanceof Player) {
-            Inventory inv = event.getInventory();
-            Player player = (Player) event.getPlayer();
-            Optional<InventoryManager> inventoryManagerOptional = InventoryApiRegister.getCustomInventoryCache().getInventory(player);
-            if (inventoryManagerOptional.isPresent()) {
-                InventoryManager inventoryManager = inventoryManagerOptional.get();
-                if (inv.equals(inventoryManager.getInventory())) {
-                    if (CustomItemInventoryCache.getInstance().containsInventoryManager(inventoryManager)) {
-                        CustomItemInventoryCache.getInstance().removeInventoryManager(inventoryManager);
-                    }
-                    InventoryApiRegister.getCustomInventoryCache().removeInventory(player);
-                }
+            inventoryManager.handleClose(event.getPlayer().getUniqueId());
+            InventoryApiRegister.getNavigator().handleClose(event.getPlayer().getUniqueId(), inventoryManager);
+        }
+    }
+
+    /**
+     * This method is used to pass drags to the {@link InventoryManager}, so for example a {@link VaultInventoryManager}
+     * can detect changes that are made by dragging items. Drags are cancelled while the contents of the vault are loading.
+     *
+     * @param event The event that is called when the player drags items.
+     * @see InventoryDragEvent
+     * @see VaultInventoryManager#markChanged()
+     * @since 1.1.0
+     */
+    @EventHandler
+    public void onInventoryDrag(InventoryDragEvent event) {
+        InventoryManager inventoryManager = InventoryManager.of(event.getInventory());
+        if (inventoryManager == null) return;
+        inventoryManager.onContentsClicked(event);
+    }
+
+    /**
+     * This method is used to mark the slots of an {@link InventoryManager} as possibly moved after a drag that was not cancelled.
+     *
+     * @param event The event that is called when the player drags items.
+     * @see InventoryManager#markMoved()
+     * @since 1.1.0
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryDragMonitor(InventoryDragEvent event) {
+        InventoryManager inventoryManager = InventoryManager.of(event.getInventory());
+        if (inventoryManager == null || !inventoryManager.isFingerprintCheck()) return;
+        for (int rawSlot : event.getRawSlots()) {
+            if (rawSlot < inventoryManager.getSize()) {
+                inventoryManager.markMoved();
+                return;
             }
         }
     }
 
     /**
      * This method is used to remove the inventory from the cache when the player leaves the server.
+     * It also resets the {@link ClickThrottle}s of the player.
      *
      * @param event The event that is called when the player leaves the server.
      * @see PlayerQuitEvent
@@ -68,17 +100,14 @@ public class InventoryListener implements Listener {
     public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
         Optional<InventoryManager> inventoryManagerOptional = InventoryApiRegister.getCustomInventoryCache().getInventory(player);
-        if (inventoryManagerOptional.isPresent()) {
-            InventoryManager inventoryManager = inventoryManagerOptional.get();
-            if (CustomItemInventoryCache.getInstance().containsInventoryManager(inventoryManager)) {
-                CustomItemInventoryCache.getInstance().removeInventoryManager(inventoryManager);
-            }
-            InventoryApiRegister.getCustomInventoryCache().removeInventory(player);
-        }
+        inventoryManagerOptional.ifPresent(inventoryManager -> inventoryManager.handleClose(player.getUniqueId()));
+        InventoryApiRegister.getNavigator().clear(player.getUniqueId());
+        ClickThrottle.resetAll(player.getUniqueId());
     }
 
     /**
      * This method is used to remove the inventory from the cache when the player is kicked from the server.
+     * It also resets the {@link ClickThrottle}s of the player.
      *
      * @param event The event that is called when the player is kicked from the server.
      * @see PlayerKickEvent
@@ -91,12 +120,7 @@ public class InventoryListener implements Listener {
     public void onPlayerKickEvent(PlayerKickEvent event) {
         Player player = event.getPlayer();
         Optional<InventoryManager> inventoryManagerOptional = InventoryApiRegister.getCustomInventoryCache().getInventory(player);
-        if (inventoryManagerOptional.isPresent()) {
-            InventoryManager inventoryManager = inventoryManagerOptional.get();
-            if (CustomItemInventoryCache.getInstance().containsInventoryManager(inventoryManager)) {
-                CustomItemInventoryCache.getInstance().removeInventoryManager(inventoryManager);
-            }
-            InventoryApiRegister.getCustomInventoryCache().removeInventory(player);
-        }
+        inventoryManagerOptional.ifPresent(inventoryManager -> inventoryManager.handleClose(player.getUniqueId()));
+        ClickThrottle.resetAll(player.getUniqueId());
     }
 }
@@ -2,26 +2,69 @@ package net.splatcrafter.clansystem.api.inventorymanager;
 
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryInteractEvent;
+import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.scheduler.BukkitTask;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class is the heart of the InventoryManager API.
  * It is used to create a new inventory for a player.
  * It is also used to add items to the inventory.
+ * Each {@link InventoryManager} is the {@link InventoryHolder} of its {@link Inventory},
+ * so the listeners can resolve it directly from an event without a cache lookup.
+ * <br>
+ * The dispatch table is an immutable array that is replaced as a whole on every change and published through a volatile field,
+ * so a click on the main thread always sees a complete table, even if the inventory was prepared on another thread.
+ * An {@link InventoryManager} must only be changed by one thread at a time.
  *
  * @author Splatcrafter
  * @version 1.0.0
  * @see InventoryApiRegister
  */
-public class InventoryManager {
+public class InventoryManager implements InventoryHolder {
+
+    private static final MethodHandle HOLDER_WITHOUT_SNAPSHOT = holderWithoutSnapshot();
 
     private String name;
     private int size;
     private UUID uuid;
     public boolean canceled;
     private Inventory inv;
+    private volatile CustomItem[] customItems;
+    private boolean fingerprintCheck;
+    private ClickThrottle clickThrottle;
+    private SlotRenderer[] liveRenderers;
+    private ItemStack[] lastRendered;
+    private BukkitTask refreshTask;
+    private long refreshPeriodTicks;
+    private PlaceholderResolver placeholderResolver;
+    private Map<String, String> placeholders;
+    private Map<String, BitSet> placeholderSlots;
+    private final BitSet occupied;
+    private final BitSet unverified;
+    private final long createdNanos;
+    private volatile long lastClickNanos;
+    private Set<String> invalidationKeys;
+    private Set<CustomItem> closedCustomItems;
+    private boolean opened;
 
     /**
      * This constructor is used to create a new inventory for a player.
@@ -33,23 +76,86 @@ public class InventoryManager {
      * @since 1.0.0
      */
     public InventoryManager(Player player, int size, String name, boolean canceled) {
+        this(player.getUniqueId(), size, name, canceled);
+        open(player);
+    }
+
+    /**
+     * This constructor is used to open a compiled {@link MenuTemplate} for a player.
+     * The static contents are copied into the {@link Inventory} with a single {@link Inventory#setContents(ItemStack[])} call
+     * and the dispatch table of the template is shared until a slot of this inventory is changed.
+     * Only the dynamic slots of the template are rendered for the player.
+     *
+     * @param player   The player who should get the inventory.
+     * @param template The {@link MenuTemplate} that should be opened.
+     * @see MenuTemplate
+     * @since 1.1.0
+     */
+    public InventoryManager(Player player, MenuTemplate template) {
+        this(player.getUniqueId(), template.getSize(), template.getName(), template.isCanceled());
+        template.compile();
+        this.customItems = template.getCustomItems();
+        writeContents(template.getContents());
+        int[] dynamicSlots = template.getDynamicSlots();
+        SlotRenderer[] renderers = template.getRenderers();
+        for (int i = 0; i < dynamicSlots.length; i++) {
+            CustomItem customItem = renderers[i].render(this);
+            if (customItem != null) {
+                writeSlot(dynamicSlots[i], customItem.itemStack);
+                bindCustomItem(dynamicSlots[i], customItem);
+            }
+        }
+        open(player);
+    }
+
+    /**
+     * This constructor is used to create a new inventory without opening it.
+     * Subclasses have to call {@link #open(Player)} once the inventory is ready.
+     *
+     * @param uuid     The UUID of the player who should get the inventory.
+     * @param size     The size of the inventory.
+     * @param name     The name of the inventory.
+     * @param canceled If the inventory should be canceled.
+     * @since 1.1.0
+     */
+    protected InventoryManager(UUID uuid, int size, String name, boolean canceled) {
+        this.createdNanos = System.nanoTime();
+        this.lastClickNanos = createdNanos - TimeUnit.HOURS.toNanos(1);
         this.size = size;
         this.name = name;
-        this.uuid = player.getUniqueId();
+        this.uuid = uuid;
         this.canceled = canceled;
-        this.inv = Bukkit.createInventory(null, size, name);
+        this.customItems = new CustomItem[size];
+        this.occupied = new BitSet(size);
+        this.unverified = new BitSet(size);
+        this.inv = Bukkit.createInventory(this, size, name);
+    }
+
+    /**
+     * Registers this {@link InventoryManager} in the {@link CustomInventoryCache} and opens the {@link Inventory} for the player.
+     * The first call records the time since the creation of this {@link InventoryManager} in the {@link InventoryMetrics}.
+     *
+     * @param player The player who should see the inventory.
+     * @see CustomInventoryCache
+     * @since 1.1.0
+     */
+    protected void open(Player player) {
+        long start = opened ? System.nanoTime() : createdNanos;
+        opened = true;
         InventoryApiRegister.getCustomInventoryCache().addInventory(player, this);
         player.openInventory(inv);
+        InventoryMetrics metrics = InventoryApiRegister.getMetrics();
+        if (metrics.isEnabled()) metrics.recordOpen(System.nanoTime() - start);
     }
 
     /**
      * Returns the player who has the {@link Inventory}.
      *
-     * @return The player who has the {@link Inventory}.
+     * @return The player who has the {@link Inventory} or null if the player is offline or the inventory has no single owner.
      * @since 1.0.0
      */
     public Player getPlayer() {
-        return Bukkit.getPlayer(uuid);
+        return uuid == null ? null : Bukkit.getPlayer(uuid);
     }
 
     /**
@@ -98,13 +204,77 @@ public class InventoryManager {
      * @return The {@link Inventory}.
      * @since 1.0.0
      */
+    @Override
     public Inventory getInventory() {
         return inv;
     }
 
+    /**
+     * Returns the {@link CustomItem} that is bound to the given slot.
+     * The lookup is a single array access into the dispatch table of this {@link InventoryManager}.
+     *
+     * @param slot The raw slot of the {@link Inventory}.
+     * @return The {@link CustomItem} bound to the slot or null if the slot is empty or out of range.
+     * @see CustomItem
+     * @since 1.1.0
+     */
+    public CustomItem getCustomItem(int slot) {
+        CustomItem[] customItems = this.customItems;
+        if (slot < 0 || slot >= customItems.length) return null;
+        return customItems[slot];
+    }
+
+    /**
+     * Returns if clicks are additionally verified against the fingerprint of the {@link CustomItem}.
+     *
+     * @return If the fingerprint check is enabled.
+     * @see CustomItem#getFingerprint()
+     * @since 1.1.0
+     */
+    public boolean isFingerprintCheck() {
+        return fingerprintCheck;
+    }
+
+    /**
+     * Enables or disables the fingerprint check.
+     * If enabled, a click is only dispatched if the clicked item still has the same type and display name
+     * as the {@link CustomItem} bound to the slot. This is useful if players are able to move items in the inventory.
+     * The clicked item is only compared after a click or drag that was not cancelled may have moved items,
+     * so clicks in a canceled inventory never read the {@link org.bukkit.inventory.meta.ItemMeta} of the clicked item.
+     *
+     * @param fingerprintCheck If the fingerprint check should be enabled.
+     * @see CustomItem#getFingerprint()
+     * @since 1.1.0
+     */
+    public void setFingerprintCheck(boolean fingerprintCheck) {
+        this.fingerprintCheck = fingerprintCheck;
+    }
+
+    /**
+     * Returns the {@link ClickThrottle} of this {@link InventoryManager}.
+     *
+     * @return The {@link ClickThrottle} or null if no throttle is set.
+     * @since 1.1.0
+     */
+    public ClickThrottle getClickThrottle() {
+        return clickThrottle;
+    }
+
+    /**
+     * Sets the {@link ClickThrottle} that is applied to all {@link CustomItem}s of this {@link InventoryManager}.
+     *
+     * @param clickThrottle The {@link ClickThrottle} or null to disable it.
+     * @see ClickThrottle
+     * @since 1.1.0
+     */
+    public void setClickThrottle(ClickThrottle clickThrottle) {
+        this.clickThrottle = clickThrottle;
+    }
+
     /**
      * This method is used to set a {@link CustomItem} in the {@link Inventory}.
-     * It also adds the {@link CustomItem} to the {@link CustomItemInventoryCache}.
+     * It also adds the {@link CustomItem} to the {@link CustomItemInventoryCache} and replaces the {@link CustomItem}
+     * that was set in the same slot before.
      * If you want to add a {@link CustomItem} to the {@link Inventory} use {@link #addItem(CustomItem)}.
      *
      * @param customItem The {@link CustomItem} which should be set.
@@ -113,22 +283,714 @@ public class InventoryManager {
      * @since 1.0.0
      */
     public void setItem(CustomItem customItem) {
-        getInventory().setItem(customItem.slot, customItem.itemStack);
+        writeSlot(customItem.slot, customItem.itemStack);
+        removeLiveItem(customItem.slot);
+        CustomItem previous = bindCustomItem(customItem.slot, customItem);
+        if (previous != null && previous != customItem) {
+            CustomItemInventoryCache.getInstance().removeCustomItem(this, previous);
+        }
         CustomItemInventoryCache.getInstance().addCustomItem(this, customItem);
     }
 
     /**
-     * This method is used to add a {@link CustomItem} to the {@link Inventory}.
-     * It also adds the {@link CustomItem} to the {@link CustomItemInventoryCache}.
+     * This method is used to add a {@link CustomItem} to the first free slot of the {@link Inventory}.
+     * It also adds the {@link CustomItem} to the {@link CustomItemInventoryCache} and binds the {@link CustomItem} to the slot.
+     * If the {@link Inventory} is full, the {@link CustomItem} is not added.
      * If you want to set a {@link CustomItem} in the {@link Inventory} use {@link #setItem(CustomItem)}.
+     * If you need the slot the {@link CustomItem} was placed in, use {@link #placeItem(CustomItem)}.
      *
      * @param customItem The {@link CustomItem} which should be added.
+     * @see #nextFreeSlot()
      * @see CustomItemInventoryCache
      * @see CustomItem
      * @since 1.0.0
      */
     public void addItem(CustomItem customItem) {
-        getInventory().addItem(customItem.itemStack);
+        placeItem(customItem);
+    }
+
+    /**
+     * This method is used to add a {@link CustomItem} to the first free slot of the {@link Inventory} like {@link #addItem(CustomItem)}
+     * and returns the slot it was placed in.
+     *
+     * @param customItem The {@link CustomItem} which should be added.
+     * @return The slot the {@link CustomItem} was placed in or -1 if the {@link Inventory} is full.
+     * @see #nextFreeSlot()
+     * @see CustomItem#getSlot()
+     * @since 1.1.0
+     */
+    public int placeItem(CustomItem customItem) {
+        int slot = nextFreeSlot();
+        if (slot == -1) return -1;
+        writeSlot(slot, customItem.itemStack);
+        bindCustomItem(slot, customItem);
+        customItem.bind(slot);
         CustomItemInventoryCache.getInstance().addCustomItem(this, customItem);
+        return slot;
+    }
+
+    /**
+     * This method is used to add several {@link CustomItem}s to the free slots of the {@link Inventory} in their order.
+     * The {@link CustomItem}s that do not fit into the {@link Inventory} are not added.
+     *
+     * @param customItems The {@link CustomItem}s which should be added.
+     * @return The number of {@link CustomItem}s that were added.
+     * @see #placeItem(CustomItem)
+     * @since 1.1.0
+     */
+    public int addItems(CustomItem... customItems) {
+        int added = 0;
+        for (CustomItem customItem : customItems) {
+            if (placeItem(customItem) == -1) break;
+            added++;
+        }
+        return added;
+    }
+
+    /**
+     * This method is used to set several {@link CustomItem}s in the {@link Inventory}, each in its own slot.
+     * The contents of the {@link Inventory} are written with a single call, the dispatch table is published once and
+     * the {@link CustomItemInventoryCache} is updated once, so this is much cheaper than calling {@link #setItem(CustomItem)}
+     * for every {@link CustomItem}.
+     * {@link CustomItem}s without a slot are added to the free slots like {@link #addItem(CustomItem)},
+     * after all other {@link CustomItem}s were set.
+     *
+     * @param customItems The {@link CustomItem}s which should be set.
+     * @see #setItem(CustomItem)
+     * @since 1.1.0
+     */
+    public void setItems(CustomItem... customItems) {
+        setItems(inv.getContents(), Arrays.asList(customItems));
+    }
+
+    /**
+     * Sets several {@link CustomItem}s on top of the given contents like {@link #setItems(CustomItem...)}.
+     * {@link CustomItem}s without a slot are placed in the slots that are empty in the given contents.
+     * The {@link CustomItem}s that do not fit into the {@link Inventory} are not set.
+     *
+     * @param contents    The contents the {@link CustomItem}s are placed on. The array is changed and written to the {@link Inventory}.
+     * @param customItems The {@link CustomItem}s which should be set.
+     * @return The number of {@link CustomItem}s that were set.
+     * @since 1.1.0
+     */
+    int setItems(ItemStack[] contents, List<CustomItem> customItems) {
+        CustomItem[] table = this.customItems.clone();
+        List<CustomItem> replaced = new ArrayList<>();
+        List<CustomItem> added = new ArrayList<>(customItems.size());
+        for (CustomItem customItem : customItems) {
+            if (customItem.slot == -1) continue;
+            place(contents, table, customItem.slot, customItem, replaced);
+            added.add(customItem);
+        }
+        int slot = 0;
+        for (CustomItem customItem : customItems) {
+            if (customItem.slot != -1) continue;
+            while (slot < size && contents[slot] != null) slot++;
+            if (slot == size) break;
+            place(contents, table, slot, customItem, replaced);
+            customItem.bind(slot);
+            added.add(customItem);
+        }
+        commitItems(contents, table, replaced, added);
+        return added.size();
+    }
+
+    /**
+     * This method is used to set several {@link CustomItem}s in the slots of a {@link SlotPattern} in their order.
+     * Each {@link CustomItem} is bound to the slot it is placed in. The {@link CustomItem}s that do not fit into
+     * the {@link SlotPattern} are not set, and slots of the {@link SlotPattern} that are left over are not changed.
+     *
+     * @param pattern     The {@link SlotPattern} which selects the slots.
+     * @param customItems The {@link CustomItem}s which should be set.
+     * @return The number of {@link CustomItem}s that were set.
+     * @see #setItems(CustomItem...)
+     * @since 1.1.0
+     */
+    public int setItems(SlotPattern pattern, List<CustomItem> customItems) {
+        ItemStack[] contents = inv.getContents();
+        CustomItem[] table = this.customItems.clone();
+        List<CustomItem> replaced = new ArrayList<>();
+        BitSet slots = pattern.slots(size);
+        int placed = 0;
+        for (int slot = slots.nextSetBit(0); slot >= 0 && placed < customItems.size(); slot = slots.nextSetBit(slot + 1)) {
+            CustomItem customItem = customItems.get(placed++);
+            place(contents, table, slot, customItem, replaced);
+            customItem.bind(slot);
+        }
+        commitItems(contents, table, replaced, customItems.subList(0, placed));
+        return placed;
+    }
+
+    /**
+     * This method is used to set the same {@link CustomItem} in all slots of a {@link SlotPattern},
+     * for example to fill the border of the {@link Inventory} with glass panes.
+     * Like {@link #setItems(CustomItem...)} the {@link Inventory}, the dispatch table and the
+     * {@link CustomItemInventoryCache} are only updated once.
+     *
+     * @param pattern    The {@link SlotPattern} which selects the slots.
+     * @param customItem The {@link CustomItem} which should be set.
+     * @see SlotPattern#border()
+     * @since 1.1.0
+     */
+    public void fill(SlotPattern pattern, CustomItem customItem) {
+        ItemStack[] contents = inv.getContents();
+        CustomItem[] table = this.customItems.clone();
+        List<CustomItem> replaced = new ArrayList<>();
+        BitSet slots = pattern.slots(size);
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            place(contents, table, slot, customItem, replaced);
+        }
+        commitItems(contents, table, replaced, Collections.singletonList(customItem));
+    }
+
+    /**
+     * This method is used to remove the item of a slot.
+     * It also removes the {@link CustomItem} of the slot from the {@link CustomItemInventoryCache} and frees the slot.
+     *
+     * @param slot The slot which should be cleared.
+     * @see CustomItemInventoryCache
+     * @since 1.1.0
+     */
+    public void removeItem(int slot) {
+        writeSlot(slot, null);
+        removeLiveItem(slot);
+        CustomItem previous = bindCustomItem(slot, null);
+        if (previous != null) {
+            CustomItemInventoryCache.getInstance().removeCustomItem(this, previous);
+        }
+    }
+
+    /**
+     * Returns the first free slot of the {@link Inventory}.
+     * The slots of this {@link InventoryManager} are skipped with the occupancy that it tracks,
+     * and only the remaining slots are read from the {@link Inventory} to skip items that players put in themselves.
+     *
+     * @return The first free slot or -1 if the {@link Inventory} is full.
+     * @since 1.1.0
+     */
+    public int nextFreeSlot() {
+        for (int slot = occupied.nextClearBit(0); slot < size; slot = occupied.nextClearBit(slot + 1)) {
+            if (inv.getItem(slot) == null) return slot;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns if the given slot is occupied by an item of this {@link InventoryManager}.
+     *
+     * @param slot The slot which should be checked.
+     * @return If the slot is occupied.
+     * @since 1.1.0
+     */
+    public boolean isOccupied(int slot) {
+        return occupied.get(slot);
+    }
+
+    /**
+     * Returns the number of free slots of the {@link Inventory}.
+     * Like {@link #nextFreeSlot()} it does not count slots that contain items of players.
+     *
+     * @return The number of free slots.
+     * @since 1.1.0
+     */
+    public int getFreeSlotCount() {
+        int free = 0;
+        for (int slot = occupied.nextClearBit(0); slot < size; slot = occupied.nextClearBit(slot + 1)) {
+            if (inv.getItem(slot) == null) free++;
+        }
+        return free;
+    }
+
+    /**
+     * This method is used to set a live slot which is rendered by a {@link SlotRenderer}.
+     * The slot is rendered immediately and again on every {@link #refresh()}.
+     * The rendered {@link CustomItem}s replace each other in the dispatch table and are not added to the {@link CustomItemInventoryCache}.
+     *
+     * @param slot     The slot which should be rendered.
+     * @param renderer The {@link SlotRenderer} which renders the slot.
+     * @see #refresh()
+     * @see #startRefresh(long)
+     * @since 1.1.0
+     */
+    public void setLiveItem(int slot, SlotRenderer renderer) {
+        if (renderer == null) throw new IllegalArgumentException("renderer cannot be null");
+        removeLiveItem(slot);
+        if (liveRenderers == null) {
+            liveRenderers = new SlotRenderer[size];
+            lastRendered = new ItemStack[size];
+        }
+        liveRenderers[slot] = renderer;
+        lastRendered[slot] = null;
+        renderLiveItem(slot);
+    }
+
+    /**
+     * This method is used to remove a live slot. The item that was rendered last stays in the {@link Inventory}.
+     *
+     * @param slot The slot which should no longer be rendered.
+     * @since 1.1.0
+     */
+    public void removeLiveItem(int slot) {
+        if (liveRenderers == null) return;
+        liveRenderers[slot] = null;
+        lastRendered[slot] = null;
+        if (placeholderSlots != null) {
+            for (BitSet slots : placeholderSlots.values()) {
+                slots.clear(slot);
+            }
+        }
+    }
+
+    /**
+     * This method is used to set a live slot that shows a {@link TemplatedIcon}.
+     * The slot remembers which placeholders it depends on, so {@link #setPlaceholder(String, String)}
+     * only renders the slots that use the changed placeholder.
+     *
+     * @param slot    The slot of the icon.
+     * @param icon    The {@link TemplatedIcon} which should be shown.
+     * @param handler The {@link ClickHandler} of the icon or null if clicks should be ignored.
+     * @see TemplatedIcon
+     * @see #setPlaceholder(String, String)
+     * @since 1.1.0
+     */
+    public void setTemplatedItem(int slot, TemplatedIcon icon, ClickHandler handler) {
+        if (icon == null) throw new IllegalArgumentException("icon cannot be null");
+        setLiveItem(slot, inventoryManager -> CustomItem.of(slot, icon.render(this::getPlaceholder), handler));
+        if (placeholderSlots == null) placeholderSlots = new HashMap<>();
+        for (String key : icon.getPlaceholders()) {
+            placeholderSlots.computeIfAbsent(key, k -> new BitSet(size)).set(slot);
+        }
+    }
+
+    /**
+     * Sets the {@link PlaceholderResolver} which resolves placeholders that have no value yet.
+     *
+     * @param placeholderResolver The {@link PlaceholderResolver} or null.
+     * @see #updatePlaceholders()
+     * @since 1.1.0
+     */
+    public void setPlaceholderResolver(PlaceholderResolver placeholderResolver) {
+        this.placeholderResolver = placeholderResolver;
+    }
+
+    /**
+     * Returns the value of a placeholder. If it has no value yet, it is resolved by the {@link PlaceholderResolver}.
+     *
+     * @param key The key of the placeholder.
+     * @return The value or null if the placeholder has no value.
+     * @since 1.1.0
+     */
+    public String getPlaceholder(String key) {
+        if (placeholders == null) placeholders = new HashMap<>();
+        String value = placeholders.get(key);
+        if (value == null && placeholderResolver != null) {
+            value = placeholderResolver.resolve(getPlayer(), key);
+            if (value != null) placeholders.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Sets the value of a placeholder. If the value changed, the slots that depend on the placeholder are rendered again.
+     *
+     * @param key   The key of the placeholder.
+     * @param value The new value.
+     * @see #setTemplatedItem(int, TemplatedIcon, ClickHandler)
+     * @since 1.1.0
+     */
+    public void setPlaceholder(String key, String value) {
+        if (placeholders == null) placeholders = new HashMap<>();
+        String previous = value == null ? placeholders.remove(key) : placeholders.put(key, value);
+        if (value == null ? previous == null : value.equals(previous)) return;
+        BitSet slots = placeholderSlots == null ? null : placeholderSlots.get(key);
+        if (slots == null) return;
+        CustomItem[] customItems = this.customItems;
+        CustomItem[] table = customItems;
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            if (liveRenderers[slot] != null) table = renderLiveItem(slot, customItems, table);
+        }
+        if (table != customItems) this.customItems = table;
+    }
+
+    /**
+     * Resolves all placeholders that are used by this {@link InventoryManager} again with the {@link PlaceholderResolver}
+     * and renders only the slots whose placeholders changed.
+     *
+     * @since 1.1.0
+     */
+    public void updatePlaceholders() {
+        if (placeholderResolver == null || placeholderSlots == null) return;
+        Player player = getPlayer();
+        for (String key : new ArrayList<>(placeholderSlots.keySet())) {
+            setPlaceholder(key, placeholderResolver.resolve(player, key));
+        }
+    }
+
+    /**
+     * This method is used to render all live slots again.
+     * The result of each slot is compared with the {@link ItemStack} that was rendered last
+     * and only the slots that differ are written to the {@link Inventory}.
+     * The dispatch table is copied at most once and only if a slot is bound to another {@link CustomItem}.
+     *
+     * @see #setLiveItem(int, SlotRenderer)
+     * @since 1.1.0
+     */
+    public void refresh() {
+        if (liveRenderers == null) return;
+        CustomItem[] customItems = this.customItems;
+        CustomItem[] table = customItems;
+        for (int slot = 0; slot < liveRenderers.length; slot++) {
+            if (liveRenderers[slot] != null) table = renderLiveItem(slot, customItems, table);
+        }
+        if (table != customItems) this.customItems = table;
+    }
+
+    /**
+     * This method is used to call {@link #refresh()} repeatedly until the {@link Inventory} is closed.
+     * The refreshes are queued in the {@link MenuScheduler}, so they are spread over several ticks if there are many of them.
+     * A refresh that was started before is stopped.
+     *
+     * @param periodTicks The interval of the refresh in ticks.
+     * @see #stopRefresh()
+     * @since 1.1.0
+     */
+    public void startRefresh(long periodTicks) {
+        cancelRefreshTask();
+        refreshPeriodTicks = periodTicks;
+        refreshTask = Bukkit.getScheduler().runTaskTimer(InventoryApiRegister.getPlugin(),
+                () -> InventoryApiRegister.getScheduler().scheduleRefresh(this), periodTicks, periodTicks);
+    }
+
+    /**
+     * This method is used to stop the refresh that was started with {@link #startRefresh(long)}.
+     *
+     * @since 1.1.0
+     */
+    public void stopRefresh() {
+        refreshPeriodTicks = 0;
+        cancelRefreshTask();
+    }
+
+    /**
+     * This method is used to subscribe to a key of the {@link InvalidationBus}, for example {@code clan:<id>}.
+     * When the key is published on any server, {@link #onInvalidated()} is called on one of the next ticks.
+     * The subscriptions are paused while the {@link Inventory} is closed and resumed when it is opened again
+     * by the {@link MenuNavigator}.
+     *
+     * @param key The key which should be subscribed.
+     * @see InvalidationBus#publish(String)
+     * @since 1.1.0
+     */
+    public void subscribe(String key) {
+        if (invalidationKeys == null) invalidationKeys = new HashSet<>();
+        if (invalidationKeys.add(key)) InventoryApiRegister.getInvalidationBus().subscribe(key, this);
+    }
+
+    /**
+     * This method is used to remove a subscription that was added with {@link #subscribe(String)}.
+     *
+     * @param key The key which should not be subscribed anymore.
+     * @since 1.1.0
+     */
+    public void unsubscribe(String key) {
+        if (invalidationKeys != null && invalidationKeys.remove(key)) {
+            InventoryApiRegister.getInvalidationBus().unsubscribe(key, this);
+        }
+    }
+
+    /**
+     * This method is called on the main thread when a subscribed key was published.
+     * By default all live slots are rendered again with {@link #refresh()}.
+     *
+     * @see #subscribe(String)
+     * @since 1.1.0
+     */
+    protected void onInvalidated() {
+        refresh();
+    }
+
+    /**
+     * This method is called by the {@link InventoryListener} when the player closes the {@link Inventory},
+     * leaves the server or is kicked from the server.
+     * It removes this {@link InventoryManager} from the {@link CustomItemInventoryCache} and the {@link CustomInventoryCache}.
+     * The removed {@link CustomItem}s are kept, so they can be added again by {@link #reopen(Player)}.
+     *
+     * @param uuid The UUID of the player who closed the inventory.
+     * @see InventoryListener
+     * @since 1.1.0
+     */
+    protected void handleClose(UUID uuid) {
+        cancelRefreshTask();
+        InventoryApiRegister.getScheduler().cancel(this);
+        pauseSubscriptions();
+        closedCustomItems = CustomItemInventoryCache.getInstance().getCustomItemHashMap().remove(this);
+        InventoryApiRegister.getCustomInventoryCache().removeInventory(uuid, this);
+    }
+
+    /**
+     * Returns if this {@link InventoryManager} can be opened again after it was closed.
+     * The {@link MenuNavigator} only reopens cached inventories that are reusable.
+     *
+     * @return If this {@link InventoryManager} can be opened again.
+     * @see MenuNavigator
+     * @since 1.1.0
+     */
+    protected boolean isReusable() {
+        return true;
+    }
+
+    /**
+     * Opens this {@link InventoryManager} again after it was closed.
+     * The live slots are rendered again, the {@link CustomItem}s that were removed from the {@link CustomItemInventoryCache}
+     * on close are added again and a refresh that was running before the close is restarted.
+     *
+     * @param player The player who should see the inventory.
+     * @see MenuNavigator
+     * @since 1.1.0
+     */
+    void reopen(Player player) {
+        refresh();
+        open(player);
+        if (closedCustomItems != null) {
+            List<CustomItem> bound = new ArrayList<>(closedCustomItems);
+            bound.retainAll(Arrays.asList(customItems));
+            CustomItemInventoryCache.getInstance().updateCustomItems(this, Collections.emptyList(), bound);
+            closedCustomItems = null;
+        }
+        if (invalidationKeys != null) {
+            for (String key : invalidationKeys) {
+                InventoryApiRegister.getInvalidationBus().subscribe(key, this);
+            }
+        }
+        if (refreshPeriodTicks > 0) startRefresh(refreshPeriodTicks);
+    }
+
+    /**
+     * Returns the value of {@link System#nanoTime()} when this {@link InventoryManager} was created.
+     *
+     * @return The creation time in nanoseconds.
+     * @since 1.1.0
+     */
+    long getCreatedNanos() {
+        return createdNanos;
+    }
+
+    /**
+     * Returns the value of {@link System#nanoTime()} when a {@link CustomItem} of this {@link InventoryManager} was clicked last.
+     *
+     * @return The time of the last click in nanoseconds.
+     * @see MenuScheduler
+     * @since 1.1.0
+     */
+    long getLastClickNanos() {
+        return lastClickNanos;
+    }
+
+    void markClicked() {
+        this.lastClickNanos = System.nanoTime();
+    }
+
+    /**
+     * This method is called by the listeners of this API for every click or drag in the {@link Inventory},
+     * before the click is handled. It does nothing by default.
+     *
+     * @param event The event of the click or drag.
+     * @since 1.1.0
+     */
+    void onContentsClicked(InventoryInteractEvent event) {
+    }
+
+    /**
+     * Marks all slots as possibly moved, so the next click on each slot is compared with the fingerprint of its {@link CustomItem}.
+     * It is called by the listeners of this API after a click or drag that was not cancelled.
+     * Call it yourself after you changed the {@link Inventory} directly while the fingerprint check is enabled.
+     *
+     * @see #setFingerprintCheck(boolean)
+     * @since 1.1.0
+     */
+    public void markMoved() {
+        unverified.set(0, size);
+    }
+
+    /**
+     * Checks if the clicked item matches the {@link CustomItem} of the slot.
+     * The fingerprint of the clicked item is only computed if items may have been moved since the slot was written or verified.
+     *
+     * @param slot        The clicked slot.
+     * @param customItem  The {@link CustomItem} of the slot.
+     * @param currentItem The clicked {@link ItemStack}.
+     * @return If the clicked item matches the {@link CustomItem}.
+     * @since 1.1.0
+     */
+    boolean verify(int slot, CustomItem customItem, ItemStack currentItem) {
+        if (!unverified.get(slot)) return true;
+        if (customItem.getFingerprint() != CustomItem.fingerprint(currentItem)) return false;
+        unverified.clear(slot);
+        return true;
+    }
+
+    /**
+     * Writes an {@link ItemStack} to a slot of the {@link Inventory} and updates the occupancy of the slot.
+     *
+     * @param slot      The slot which should be written.
+     * @param itemStack The {@link ItemStack} or null to clear the slot.
+     * @since 1.1.0
+     */
+    void writeSlot(int slot, ItemStack itemStack) {
+        inv.setItem(slot, itemStack);
+        occupied.set(slot, itemStack != null);
+        unverified.clear(slot);
+    }
+
+    /**
+     * Writes the contents of the {@link Inventory} with a single call and updates the occupancy of all slots.
+     *
+     * @param contents The new contents of the {@link Inventory}.
+     * @since 1.1.0
+     */
+    void writeContents(ItemStack[] contents) {
+        inv.setContents(contents);
+        occupied.clear();
+        unverified.clear();
+        for (int slot = 0; slot < contents.length && slot < size; slot++) {
+            if (contents[slot] != null) occupied.set(slot);
+        }
+    }
+
+    /**
+     * Replaces the contents and the dispatch table of the {@link Inventory} in one step.
+     * The dispatch table must have the size of the {@link Inventory}. It is not copied, so it must not be changed afterwards.
+     *
+     * @param contents    The new contents of the {@link Inventory}.
+     * @param customItems The new dispatch table.
+     * @since 1.1.0
+     */
+    void applyContents(ItemStack[] contents, CustomItem[] customItems) {
+        writeContents(contents);
+        this.customItems = customItems;
+    }
+
+    /**
+     * Binds a {@link CustomItem} to a slot of the dispatch table.
+     * The dispatch table is copied and the copy is published, so the old table is never changed.
+     * This also keeps the table of a {@link MenuTemplate} untouched.
+     *
+     * @param slot       The slot the {@link CustomItem} is bound to.
+     * @param customItem The {@link CustomItem} which should be bound.
+     * @return The {@link CustomItem} that was bound to the slot before.
+     * @since 1.1.0
+     */
+    CustomItem bindCustomItem(int slot, CustomItem customItem) {
+        CustomItem[] customItems = this.customItems.clone();
+        CustomItem previous = customItems[slot];
+        customItems[slot] = customItem;
+        this.customItems = customItems;
+        return previous;
+    }
+
+    /**
+     * Returns a copy of the dispatch table which can be changed and published with {@link #applyContents(ItemStack[], CustomItem[])}.
+     *
+     * @return A copy of the dispatch table.
+     * @since 1.1.0
+     */
+    CustomItem[] copyCustomItems() {
+        return customItems.clone();
+    }
+
+    /**
+     * Returns the {@link InventoryManager} that holds the given {@link Inventory}.
+     * Every {@link InventoryManager} creates a chest inventory, so inventories of other types are rejected without asking for their holder.
+     * The holder of a chest is read with {@code getHolder(false)} where the server provides it,
+     * because {@link Inventory#getHolder()} takes a snapshot of the block state for block inventories.
+     * Other servers fall back to {@link Inventory#getHolder()}.
+     *
+     * @param inventory The {@link Inventory} of an event.
+     * @return The {@link InventoryManager} or null if the {@link Inventory} is not held by an {@link InventoryManager}.
+     * @since 1.1.0
+     */
+    static InventoryManager of(Inventory inventory) {
+        if (inventory == null || inventory.getType() != InventoryType.CHEST) return null;
+        InventoryHolder holder;
+        if (HOLDER_WITHOUT_SNAPSHOT == null) {
+            holder = inventory.getHolder();
+        } else {
+            try {
+                holder = (InventoryHolder) HOLDER_WITHOUT_SNAPSHOT.invokeExact(inventory, false);
+            } catch (RuntimeException | Error exception) {
+                throw exception;
+            } catch (Throwable throwable) {
+                throw new IllegalStateException(throwable);
+            }
+        }
+        return holder instanceof InventoryManager ? (InventoryManager) holder : null;
+    }
+
+    private static MethodHandle holderWithoutSnapshot() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(Inventory.class, "getHolder",
+                    MethodType.methodType(InventoryHolder.class, boolean.class));
+        } catch (NoSuchMethodException | IllegalAccessException exception) {
+            return null;
+        }
+    }
+
+    private void place(ItemStack[] contents, CustomItem[] table, int slot, CustomItem customItem, List<CustomItem> replaced) {
+        removeLiveItem(slot);
+        contents[slot] = customItem.itemStack;
+        CustomItem previous = table[slot];
+        table[slot] = customItem;
+        if (previous != null && previous != customItem) replaced.add(previous);
+    }
+
+    private void commitItems(ItemStack[] contents, CustomItem[] table, List<CustomItem> replaced, List<CustomItem> added) {
+        applyContents(contents, table);
+        List<CustomItem> removed = new ArrayList<>(replaced.size());
+        for (CustomItem customItem : replaced) {
+            if (!Arrays.asList(table).contains(customItem)) removed.add(customItem);
+        }
+        CustomItemInventoryCache.getInstance().updateCustomItems(this, removed, added);
+    }
+
+    void pauseSubscriptions() {
+        if (invalidationKeys == null) return;
+        for (String key : invalidationKeys) {
+            InventoryApiRegister.getInvalidationBus().unsubscribe(key, this);
+        }
+    }
+
+    private void cancelRefreshTask() {
+        if (refreshTask != null) {
+            refreshTask.cancel();
+            refreshTask = null;
+        }
+    }
+
+    private void renderLiveItem(int slot) {
+        CustomItem[] customItems = this.customItems;
+        CustomItem[] table = renderLiveItem(slot, customItems, customItems);
+        if (table != customItems) this.customItems = table;
+    }
+
+    /**
+     * Renders a live slot and binds its {@link CustomItem} in the given table.
+     * The published table is copied before its first change, the copy is changed in place afterwards.
+     *
+     * @param slot      The slot which should be rendered.
+     * @param published The dispatch table that is published right now.
+     * @param table     The published table or the copy that was made for this render pass.
+     * @return The table that contains the rendered {@link CustomItem}.
+     */
+    private CustomItem[] renderLiveItem(int slot, CustomItem[] published, CustomItem[] table) {
+        CustomItem customItem = liveRenderers[slot].render(this);
+        ItemStack itemStack = customItem == null ? null : customItem.itemStack;
+        if (itemStack == null ? lastRendered[slot] != null : !itemStack.equals(lastRendered[slot])) {
+            writeSlot(slot, itemStack);
+            lastRendered[slot] = itemStack == null ? null : itemStack.clone();
+        }
+        if (table[slot] == customItem) return table;
+        if (table == published) table = published.clone();
+        table[slot] = customItem;
+        return table;
     }
 }
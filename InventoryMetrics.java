@@ -0,0 +1,301 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class collects metrics of the InventoryManager API.
+ * It records the open latency, the click dispatch latency and the handler time per inventory name,
+ * the handler time per {@link CustomItem}, tagged by inventory name and slot without allocating a tag per click,
+ * the number of dispatched and ignored clicks and the size of the caches.
+ * The inventory names and the {@link CustomItem} tags are each limited to 256 values, further values are recorded as {@code <other>}.
+ * All counters are lock-free, so the metrics can stay enabled in production.
+ * Handlers that take longer than the slow handler threshold are logged.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see LatencyHistogram
+ * @see InventoryApiRegister#getMetrics()
+ */
+public class InventoryMetrics {
+
+    private static final int MAX_TAGS = 256;
+    private static final int MAX_SLOTS = 54;
+    private static final String OTHER_TAG = "<other>";
+
+    private final LatencyHistogram openLatency;
+    private final Map<String, LatencyHistogram> dispatchLatency;
+    private final Map<String, LatencyHistogram> handlerTime;
+    private final Map<String, AtomicReferenceArray<LatencyHistogram>> itemHandlerTime;
+    private final AtomicInteger itemTagCount;
+    private final LatencyHistogram otherItemHandlerTime;
+    private final LongAdder dispatchedClicks;
+    private final LongAdder ignoredClicks;
+    private volatile boolean enabled;
+    private volatile long slowHandlerThresholdNanos;
+
+    public InventoryMetrics() {
+        this.openLatency = new LatencyHistogram();
+        this.dispatchLatency = new ConcurrentHashMap<>();
+        this.handlerTime = new ConcurrentHashMap<>();
+        this.itemHandlerTime = new ConcurrentHashMap<>();
+        this.itemTagCount = new AtomicInteger();
+        this.otherItemHandlerTime = new LatencyHistogram();
+        this.dispatchedClicks = new LongAdder();
+        this.ignoredClicks = new LongAdder();
+        this.enabled = true;
+        this.slowHandlerThresholdNanos = TimeUnit.MILLISECONDS.toNanos(5);
+    }
+
+    /**
+     * Returns if the metrics are recorded.
+     *
+     * @return If the metrics are recorded.
+     * @since 1.1.0
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables the recording of the metrics.
+     *
+     * @param enabled If the metrics should be recorded.
+     * @since 1.1.0
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Sets the time after which a handler is logged as slow.
+     *
+     * @param millis The threshold in milliseconds or 0 to disable the logging.
+     * @since 1.1.0
+     */
+    public void setSlowHandlerThreshold(long millis) {
+        this.slowHandlerThresholdNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+    }
+
+    /**
+     * Records the time it took to open an inventory.
+     *
+     * @param nanos The open latency in nanoseconds.
+     * @since 1.1.0
+     */
+    public void recordOpen(long nanos) {
+        openLatency.record(nanos);
+    }
+
+    /**
+     * Records a click that was dispatched to a {@link CustomItem}.
+     *
+     * @param inventoryManager The {@link InventoryManager} that was clicked.
+     * @param customItem       The {@link CustomItem} that handled the click.
+     * @param dispatchNanos    The time of the whole dispatch in nanoseconds.
+     * @param handlerNanos     The time of the handler in nanoseconds.
+     * @since 1.1.0
+     */
+    public void recordClick(InventoryManager inventoryManager, CustomItem customItem, long dispatchNanos, long handlerNanos) {
+        dispatchedClicks.increment();
+        String tag = tag(dispatchLatency, inventoryManager.getName());
+        histogram(dispatchLatency, tag).record(dispatchNanos);
+        histogram(handlerTime, tag).record(handlerNanos);
+        itemHistogram(tag, customItem.getSlot()).record(handlerNanos);
+        long threshold = slowHandlerThresholdNanos;
+        if (threshold > 0 && handlerNanos > threshold) {
+            InventoryApiRegister.getPlugin().getLogger().warning(String.format("Slow click handler %s in slot %d of inventory %s took %dms",
+                    customItem.getClass().getName(), customItem.getSlot(), inventoryManager.getName(), TimeUnit.NANOSECONDS.toMillis(handlerNanos)));
+        }
+    }
+
+    /**
+     * Records a click in an inventory of this API that was not dispatched to a {@link CustomItem}.
+     *
+     * @since 1.1.0
+     */
+    public void recordIgnoredClick() {
+        ignoredClicks.increment();
+    }
+
+    /**
+     * Returns the histogram of the open latency.
+     *
+     * @return The histogram of the open latency.
+     * @since 1.1.0
+     */
+    public LatencyHistogram getOpenLatency() {
+        return openLatency;
+    }
+
+    /**
+     * Returns the histogram of the click dispatch latency of the inventories with the given name.
+     *
+     * @param name The name of the inventories.
+     * @return The histogram or null if no click was recorded for the name.
+     * @since 1.1.0
+     */
+    public LatencyHistogram getDispatchLatency(String name) {
+        return dispatchLatency.get(name);
+    }
+
+    /**
+     * Returns the histogram of the handler time of the inventories with the given name.
+     *
+     * @param name The name of the inventories.
+     * @return The histogram or null if no click was recorded for the name.
+     * @since 1.1.0
+     */
+    public LatencyHistogram getHandlerTime(String name) {
+        return handlerTime.get(name);
+    }
+
+    /**
+     * Returns the histogram of the handler time of the {@link CustomItem}s in the given slot of the inventories with the given name.
+     *
+     * @param name The name of the inventories.
+     * @param slot The slot of the {@link CustomItem}s.
+     * @return The histogram or null if no click was recorded for the slot.
+     * @since 1.1.0
+     */
+    public LatencyHistogram getHandlerTime(String name, int slot) {
+        AtomicReferenceArray<LatencyHistogram> histograms = itemHandlerTime.get(name);
+        return histograms == null || slot < 0 || slot >= histograms.length() ? null : histograms.get(slot);
+    }
+
+    /**
+     * Returns the number of clicks that were dispatched to a {@link CustomItem}.
+     *
+     * @return The number of dispatched clicks.
+     * @since 1.1.0
+     */
+    public long getDispatchedClicks() {
+        return dispatchedClicks.sum();
+    }
+
+    /**
+     * Returns the number of clicks in inventories of this API that were not dispatched.
+     *
+     * @return The number of ignored clicks.
+     * @since 1.1.0
+     */
+    public long getIgnoredClicks() {
+        return ignoredClicks.sum();
+    }
+
+    /**
+     * Returns the number of players that have an open {@link InventoryManager}.
+     *
+     * @return The number of open {@link InventoryManager}s.
+     * @since 1.1.0
+     */
+    public int getOpenInventoryCount() {
+        return InventoryApiRegister.getCustomInventoryCache().size();
+    }
+
+    /**
+     * Returns the number of {@link CustomItem}s in the {@link CustomItemInventoryCache}.
+     *
+     * @return The number of cached {@link CustomItem}s.
+     * @since 1.1.0
+     */
+    public int getCachedCustomItemCount() {
+        return CustomItemInventoryCache.getInstance().getCustomItemCount();
+    }
+
+    /**
+     * Removes all recorded latencies and click counts, so a load test or a new release can be measured on its own.
+     * The cache sizes are not affected.
+     *
+     * @since 1.1.0
+     */
+    public void reset() {
+        openLatency.reset();
+        dispatchLatency.clear();
+        handlerTime.clear();
+        itemHandlerTime.clear();
+        itemTagCount.set(0);
+        otherItemHandlerTime.reset();
+        dispatchedClicks.reset();
+        ignoredClicks.reset();
+    }
+
+    /**
+     * Returns a text dump of all metrics.
+     *
+     * @return The text dump of all metrics.
+     * @since 1.1.0
+     */
+    public String dump() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("InventoryManager metrics").append(enabled ? "" : " (disabled)").append('\n');
+        builder.append("  open inventories: ").append(getOpenInventoryCount()).append('\n');
+        builder.append("  shared inventories: ").append(InventoryApiRegister.getSharedInventoryCache().size()).append('\n');
+        builder.append("  cached custom items: ").append(getCachedCustomItemCount()).append('\n');
+        if (InventoryApiRegister.getSweeper() != null) {
+            builder.append("  reclaimed stale entries: ").append(InventoryApiRegister.getSweeper().getReclaimedCount()).append('\n');
+        }
+        if (InventoryApiRegister.getScheduler() != null) {
+            MenuScheduler scheduler = InventoryApiRegister.getScheduler();
+            builder.append("  scheduler queue depth: ").append(scheduler.getQueueDepth())
+                    .append(" overruns: ").append(scheduler.getBudgetOverruns())
+                    .append(" carried over ticks: ").append(scheduler.getCarriedOverTicks()).append('\n');
+        }
+        if (InventoryApiRegister.getInvalidationBus() != null) {
+            InvalidationBus invalidationBus = InventoryApiRegister.getInvalidationBus();
+            builder.append("  invalidation keys subscribed: ").append(invalidationBus.getSubscribedKeyCount())
+                    .append(" received: ").append(invalidationBus.getReceivedKeys())
+                    .append(" invalidated inventories: ").append(invalidationBus.getInvalidatedInventories()).append('\n');
+        }
+        builder.append("  clicks dispatched: ").append(getDispatchedClicks())
+                .append(" ignored: ").append(getIgnoredClicks()).append('\n');
+        builder.append("  open latency: ").append(openLatency).append('\n');
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(dispatchLatency).entrySet()) {
+            builder.append("  [").append(entry.getKey()).append("] dispatch: ").append(entry.getValue()).append('\n');
+            builder.append("  [").append(entry.getKey()).append("] handler: ").append(handlerTime.get(entry.getKey())).append('\n');
+        }
+        for (Map.Entry<String, AtomicReferenceArray<LatencyHistogram>> entry : new TreeMap<>(itemHandlerTime).entrySet()) {
+            for (int slot = 0; slot < entry.getValue().length(); slot++) {
+                LatencyHistogram histogram = entry.getValue().get(slot);
+                if (histogram == null) continue;
+                builder.append("  [").append(entry.getKey()).append('#').append(slot).append("] item handler: ").append(histogram).append('\n');
+            }
+        }
+        if (otherItemHandlerTime.getCount() > 0) {
+            builder.append("  [").append(OTHER_TAG).append("] item handler: ").append(otherItemHandlerTime).append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static String tag(Map<String, LatencyHistogram> histograms, String name) {
+        if (name == null) return OTHER_TAG;
+        if (histograms.size() >= MAX_TAGS && !histograms.containsKey(name)) return OTHER_TAG;
+        return name;
+    }
+
+    private LatencyHistogram itemHistogram(String tag, int slot) {
+        if (slot < 0 || slot >= MAX_SLOTS) return otherItemHandlerTime;
+        AtomicReferenceArray<LatencyHistogram> histograms = itemHandlerTime.get(tag);
+        if (histograms == null) histograms = itemHandlerTime.computeIfAbsent(tag, key -> new AtomicReferenceArray<>(MAX_SLOTS));
+        LatencyHistogram histogram = histograms.get(slot);
+        if (histogram != null) return histogram;
+        if (itemTagCount.incrementAndGet() > MAX_TAGS) {
+            itemTagCount.decrementAndGet();
+            return otherItemHandlerTime;
+        }
+        if (histograms.compareAndSet(slot, null, new LatencyHistogram())) return histograms.get(slot);
+        itemTagCount.decrementAndGet();
+        return histograms.get(slot);
+    }
+
+    private static LatencyHistogram histogram(Map<String, LatencyHistogram> histograms, String tag) {
+        LatencyHistogram histogram = histograms.get(tag);
+        if (histogram == null) histogram = histograms.computeIfAbsent(tag, key -> new LatencyHistogram());
+        return histogram;
+    }
+}
@@ -0,0 +1,124 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is used to reclaim inventories that were missed by the {@link InventoryListener}.
+ * This happens for example if another plugin swaps the open inventory of a player without a close event
+ * or if a handler throws an exception while the inventory is closed.
+ * It runs periodically on the main thread and checks the open inventory of every cached player.
+ * Entries whose player left the server or no longer looks at the inventory are torn down.
+ * {@link InventoryManager}s that were created less than the grace period ago are not reclaimed,
+ * so inventories that are still being prepared stay untouched.
+ * It also evicts the idle buckets of all {@link ClickThrottle}s.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see CustomInventoryCache
+ * @see CustomItemInventoryCache
+ * @see SharedInventoryCache
+ */
+public class InventorySweeper implements Runnable {
+
+    private final long graceNanos;
+    private final LongAdder reclaimedCount;
+    private volatile int lastReclaimedCount;
+    private volatile long lastSweep;
+
+    /**
+     * Creates a new {@link InventorySweeper}.
+     *
+     * @param graceMillis The time in milliseconds an {@link InventoryManager} is not reclaimed after its creation.
+     * @since 1.1.0
+     */
+    public InventorySweeper(long graceMillis) {
+        this.graceNanos = TimeUnit.MILLISECONDS.toNanos(graceMillis);
+        this.reclaimedCount = new LongAdder();
+    }
+
+    @Override
+    public void run() {
+        int reclaimed = 0;
+        long now = System.nanoTime();
+        for (Map.Entry<UUID, InventoryManager> entry : InventoryApiRegister.getCustomInventoryCache().getInventories().entrySet()) {
+            if (!isViewing(entry.getKey(), entry.getValue())) {
+                entry.getValue().handleClose(entry.getKey());
+                reclaimed++;
+            }
+        }
+        for (SharedInventoryManager inventoryManager : InventoryApiRegister.getSharedInventoryCache().getInventories()) {
+            for (UUID viewer : new ArrayList<>(inventoryManager.getViewers())) {
+                if (!isViewing(viewer, inventoryManager)) {
+                    inventoryManager.handleClose(viewer);
+                    reclaimed++;
+                }
+            }
+            if (!inventoryManager.isTornDown() && inventoryManager.getViewerCount() == 0
+                    && now - inventoryManager.getCreatedNanos() > graceNanos) {
+                inventoryManager.tearDown();
+                reclaimed++;
+            }
+        }
+        CustomItemInventoryCache customItemInventoryCache = CustomItemInventoryCache.getInstance();
+        for (InventoryManager inventoryManager : new ArrayList<>(customItemInventoryCache.getCustomItemHashMap().keySet())) {
+            if (now - inventoryManager.getCreatedNanos() > graceNanos && !isOpen(inventoryManager)) {
+                customItemInventoryCache.removeInventoryManager(inventoryManager);
+                reclaimed++;
+            }
+        }
+        ClickThrottle.evictIdleBuckets();
+        reclaimedCount.add(reclaimed);
+        lastReclaimedCount = reclaimed;
+        lastSweep = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the number of stale entries that were reclaimed since the server started.
+     *
+     * @return The number of reclaimed entries.
+     * @since 1.1.0
+     */
+    public long getReclaimedCount() {
+        return reclaimedCount.sum();
+    }
+
+    /**
+     * Returns the number of stale entries that were reclaimed by the last sweep.
+     *
+     * @return The number of entries reclaimed by the last sweep.
+     * @since 1.1.0
+     */
+    public int getLastReclaimedCount() {
+        return lastReclaimedCount;
+    }
+
+    /**
+     * Returns the time in milliseconds of the last sweep.
+     *
+     * @return The time of the last sweep or 0 if there was no sweep yet.
+     * @since 1.1.0
+     */
+    public long getLastSweep() {
+        return lastSweep;
+    }
+
+    private static boolean isOpen(InventoryManager inventoryManager) {
+        if (inventoryManager instanceof SharedInventoryManager) {
+            return ((SharedInventoryManager) inventoryManager).getViewerCount() > 0;
+        }
+        return inventoryManager.getUUID() != null && InventoryApiRegister.getCustomInventoryCache()
+                .getInventory(inventoryManager.getUUID()).filter(inventoryManager::equals).isPresent();
+    }
+
+    private static boolean isViewing(UUID uuid, InventoryManager inventoryManager) {
+        Player player = Bukkit.getPlayer(uuid);
+        return player != null && inventoryManager.getInventory().equals(player.getOpenInventory().getTopInventory());
+    }
+}
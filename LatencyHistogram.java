@@ -0,0 +1,131 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is a lock-free histogram for latencies in nanoseconds.
+ * Each value is counted in a bucket whose upper bound is the next power of two,
+ * so recording a value costs a few atomic increments and no allocation.
+ * Percentiles are therefore reported as the upper bound of their bucket.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see InventoryMetrics
+ */
+public class LatencyHistogram {
+
+    private final AtomicLongArray buckets;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final AtomicLong max;
+
+    public LatencyHistogram() {
+        this.buckets = new AtomicLongArray(64);
+        this.count = new LongAdder();
+        this.sum = new LongAdder();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos The latency in nanoseconds.
+     * @since 1.1.0
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(nanos));
+        count.increment();
+        sum.add(nanos);
+        long currentMax = max.get();
+        while (nanos > currentMax && !max.compareAndSet(currentMax, nanos)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Removes all recorded latencies.
+     * Latencies that are recorded at the same time may be counted partially.
+     *
+     * @since 1.1.0
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return The number of recorded latencies.
+     * @since 1.1.0
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the mean of the recorded latencies.
+     *
+     * @return The mean in nanoseconds or 0 if nothing was recorded.
+     * @since 1.1.0
+     */
+    public long getMean() {
+        long count = this.count.sum();
+        return count == 0 ? 0 : sum.sum() / count;
+    }
+
+    /**
+     * Returns the highest recorded latency.
+     *
+     * @return The highest latency in nanoseconds.
+     * @since 1.1.0
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the upper bound of the bucket that contains the given percentile.
+     *
+     * @param percentile The percentile between 0 and 100.
+     * @return The upper bound of the percentile in nanoseconds or 0 if nothing was recorded.
+     * @since 1.1.0
+     */
+    public long getPercentile(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[buckets.length()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) return 0;
+        long target = (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100);
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= Math.max(1, target)) return i == 0 ? 0 : Math.min(max.get(), (1L << i) - 1);
+        }
+        return max.get();
+    }
+
+    /**
+     * Returns a short summary with the count, mean, p50, p99 and max in microseconds.
+     *
+     * @return The summary of this histogram.
+     * @since 1.1.0
+     */
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%dus p50=%dus p99=%dus max=%dus", getCount(),
+                TimeUnit.NANOSECONDS.toMicros(getMean()), TimeUnit.NANOSECONDS.toMicros(getPercentile(50)),
+                TimeUnit.NANOSECONDS.toMicros(getPercentile(99)), TimeUnit.NANOSECONDS.toMicros(getMax()));
+    }
+}
@@ -0,0 +1,71 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.entity.Player;
+
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * This interface describes a menu that can be opened by the {@link MenuNavigator}.
+ * The key identifies the menu in the navigation stack and in the cache of recently closed menus.
+ * A cached menu is only reused if its data version did not change since it was opened.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see MenuNavigator
+ */
+public interface MenuFactory {
+
+    /**
+     * Returns the key of the menu, for example {@code members:<clan>}.
+     *
+     * @return The key of the menu.
+     * @since 1.1.0
+     */
+    String getKey();
+
+    /**
+     * Returns the current version of the data that is shown in the menu.
+     *
+     * @return The current data version.
+     * @since 1.1.0
+     */
+    long getVersion();
+
+    /**
+     * Creates and opens the menu for the given player.
+     *
+     * @param player The player who should get the menu.
+     * @return The {@link InventoryManager} of the opened menu.
+     * @since 1.1.0
+     */
+    InventoryManager open(Player player);
+
+    /**
+     * Creates a {@link MenuFactory} from a key, a version supplier and a function that opens the menu.
+     *
+     * @param key     The key of the menu.
+     * @param version The supplier of the current data version.
+     * @param opener  The function that creates and opens the menu.
+     * @return The {@link MenuFactory}.
+     * @since 1.1.0
+     */
+    static MenuFactory of(String key, LongSupplier version, Function<Player, InventoryManager> opener) {
+        return new MenuFactory() {
+            @Override
+            public String getKey() {
+                return key;
+            }
+
+            @Override
+            public long getVersion() {
+                return version.getAsLong();
+            }
+
+            @Override
+            public InventoryManager open(Player player) {
+                return opener.apply(player);
+            }
+        };
+    }
+}
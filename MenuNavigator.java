@@ -0,0 +1,241 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.entity.Player;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is used to navigate between nested menus, like clan menu, members, member details and permissions.
+ * Each player has a navigation stack of {@link MenuFactory}s and a cache of recently closed menus.
+ * When the player goes back, the cached {@link InventoryManager} is opened again with its {@link org.bukkit.inventory.Inventory}
+ * and dispatch table instead of being built again, as long as its data version did not change and it did not expire.
+ * The cache of each player is a LRU that is bounded by the total number of slots of its menus.
+ * If the player closes a menu without navigating, the stack is cleared but the cache is kept.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see MenuFactory
+ * @see InventoryApiRegister#getNavigator()
+ */
+public class MenuNavigator {
+
+    private final int maxCachedSlots;
+    private final long ttlNanos;
+    private final Map<UUID, Deque<Entry>> stacks;
+    private final Map<UUID, LinkedHashMap<String, Entry>> caches;
+    private final Set<UUID> navigating;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    /**
+     * Creates a new {@link MenuNavigator}.
+     *
+     * @param maxCachedSlots The maximum number of slots of all cached menus of a player.
+     * @param ttlMillis      The time in milliseconds a closed menu stays in the cache.
+     * @since 1.1.0
+     */
+    public MenuNavigator(int maxCachedSlots, long ttlMillis) {
+        this.maxCachedSlots = maxCachedSlots;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.stacks = new HashMap<>();
+        this.caches = new HashMap<>();
+        this.navigating = new HashSet<>();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    /**
+     * Opens the menu on top of the navigation stack of the player.
+     *
+     * @param player  The player who should get the menu.
+     * @param factory The {@link MenuFactory} of the menu.
+     * @return The {@link InventoryManager} of the opened menu.
+     * @since 1.1.0
+     */
+    public InventoryManager push(Player player, MenuFactory factory) {
+        Deque<Entry> stack = stacks.computeIfAbsent(player.getUniqueId(), uuid -> new ArrayDeque<>());
+        Entry current = stack.peek();
+        if (current != null) retain(player.getUniqueId(), current);
+        Entry entry = new Entry(factory);
+        stack.push(entry);
+        return show(player, entry);
+    }
+
+    /**
+     * Replaces the menu on top of the navigation stack of the player.
+     *
+     * @param player  The player who should get the menu.
+     * @param factory The {@link MenuFactory} of the new menu.
+     * @return The {@link InventoryManager} of the opened menu.
+     * @since 1.1.0
+     */
+    public InventoryManager replace(Player player, MenuFactory factory) {
+        Deque<Entry> stack = stacks.computeIfAbsent(player.getUniqueId(), uuid -> new ArrayDeque<>());
+        Entry current = stack.poll();
+        if (current != null) retain(player.getUniqueId(), current);
+        Entry entry = new Entry(factory);
+        stack.push(entry);
+        return show(player, entry);
+    }
+
+    /**
+     * Goes back to the previous menu of the player.
+     * If there is no previous menu, the inventory of the player is closed.
+     *
+     * @param player The player who should go back.
+     * @return The {@link InventoryManager} of the previous menu or null if there is none.
+     * @since 1.1.0
+     */
+    public InventoryManager back(Player player) {
+        Deque<Entry> stack = stacks.get(player.getUniqueId());
+        Entry current = stack == null ? null : stack.poll();
+        if (current != null) retain(player.getUniqueId(), current);
+        Entry previous = stack == null ? null : stack.peek();
+        if (previous == null) {
+            stacks.remove(player.getUniqueId());
+            player.closeInventory();
+            return null;
+        }
+        return show(player, previous);
+    }
+
+    /**
+     * Returns the number of menus on the navigation stack of the player.
+     *
+     * @param player The player whose stack should be checked.
+     * @return The number of menus on the stack.
+     * @since 1.1.0
+     */
+    public int getDepth(Player player) {
+        Deque<Entry> stack = stacks.get(player.getUniqueId());
+        return stack == null ? 0 : stack.size();
+    }
+
+    /**
+     * Removes the cached menus with the given key of all players.
+     *
+     * @param key The key of the menus.
+     * @since 1.1.0
+     */
+    public void invalidate(String key) {
+        for (LinkedHashMap<String, Entry> cache : caches.values()) {
+            cache.remove(key);
+        }
+    }
+
+    /**
+     * Removes the navigation stack and the cached menus of the player, for example when the player leaves the server.
+     *
+     * @param uuid The UUID of the player.
+     * @since 1.1.0
+     */
+    public void clear(UUID uuid) {
+        stacks.remove(uuid);
+        caches.remove(uuid);
+        navigating.remove(uuid);
+    }
+
+    /**
+     * Returns the number of menus that were opened from the cache.
+     *
+     * @return The number of cache hits.
+     * @since 1.1.0
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of menus that had to be created again.
+     *
+     * @return The number of cache misses.
+     * @since 1.1.0
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * This method is called by the {@link InventoryListener} when a player closes an {@link InventoryManager}.
+     * If the player closed the menu on top of the stack without navigating, the stack is cleared.
+     *
+     * @param uuid             The UUID of the player.
+     * @param inventoryManager The {@link InventoryManager} that was closed.
+     * @since 1.1.0
+     */
+    void handleClose(UUID uuid, InventoryManager inventoryManager) {
+        if (navigating.contains(uuid)) return;
+        Deque<Entry> stack = stacks.get(uuid);
+        if (stack != null && !stack.isEmpty() && stack.peek().inventoryManager == inventoryManager) {
+            retain(uuid, stack.peek());
+            stacks.remove(uuid);
+        }
+    }
+
+    private InventoryManager show(Player player, Entry entry) {
+        UUID uuid = player.getUniqueId();
+        long version = entry.factory.getVersion();
+        LinkedHashMap<String, Entry> cache = caches.get(uuid);
+        Entry cached = cache == null ? null : cache.remove(entry.factory.getKey());
+        navigating.add(uuid);
+        try {
+            if (cached != null && cached.version == version && System.nanoTime() - cached.closedAt < ttlNanos
+                    && cached.inventoryManager.isReusable()) {
+                hits.increment();
+                cached.inventoryManager.reopen(player);
+                entry.inventoryManager = cached.inventoryManager;
+            } else {
+                misses.increment();
+                entry.inventoryManager = entry.factory.open(player);
+            }
+        } finally {
+            navigating.remove(uuid);
+        }
+        entry.version = version;
+        return entry.inventoryManager;
+    }
+
+    private void retain(UUID uuid, Entry entry) {
+        if (entry.inventoryManager == null || entry.inventoryManager.getSize() > maxCachedSlots) return;
+        LinkedHashMap<String, Entry> cache = caches.computeIfAbsent(uuid, key -> new LinkedHashMap<>(16, 0.75f, true));
+        Entry retained = new Entry(entry.factory);
+        retained.inventoryManager = entry.inventoryManager;
+        retained.version = entry.version;
+        retained.closedAt = System.nanoTime();
+        cache.put(entry.factory.getKey(), retained);
+        long now = retained.closedAt;
+        int slots = 0;
+        for (Entry cachedEntry : cache.values()) {
+            slots += cachedEntry.inventoryManager.getSize();
+        }
+        Iterator<Entry> iterator = cache.values().iterator();
+        while (iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            if (slots <= maxCachedSlots && now - eldest.closedAt < ttlNanos) continue;
+            slots -= eldest.inventoryManager.getSize();
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry {
+
+        private final MenuFactory factory;
+        private InventoryManager inventoryManager;
+        private long version;
+        private long closedAt;
+
+        private Entry(MenuFactory factory) {
+            this.factory = factory;
+        }
+    }
+}
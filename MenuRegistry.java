@@ -0,0 +1,417 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemFlag;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+
+/**
+ * This class is used to define menus in YAML files instead of code.
+ * Every file in the menus folder of the plugin defines one menu, the name of the file without the extension is the id of the menu.
+ * The files are parsed in parallel on the worker pool of the {@link InventoryApiRegister} into plain data.
+ * The icons and {@link MenuTemplate}s are built from it on the main thread, so opening a menu does not read or parse anything.
+ * <br>
+ * When a file changes, the menus are reloaded in the background. Only changed files are parsed again and all menus are
+ * replaced in one step. Players who have a menu open keep the old version until they open it again.
+ * If a file is invalid, the error is logged and the old version of the menu stays in use.
+ * <pre>{@code
+ * title: "&6Clan"
+ * size: 27
+ * layout:
+ *   - "#########"
+ *   - "#   v   #"
+ *   - "#########"
+ * icons:
+ *   "#":
+ *     material: GRAY_STAINED_GLASS_PANE
+ *     name: " "
+ *   v:
+ *     material: CHEST
+ *     name: "&6Vault"
+ *     lore: ["&7Open the clan vault"]
+ *     action: open-vault
+ * }</pre>
+ * Icons can also be placed with {@code slot} or {@code slots} instead of the layout.
+ * The actions are registered with {@link #registerAction(String, ClickHandler)}. The action {@code close} is registered by default.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see MenuTemplate
+ * @see InventoryApiRegister#getMenuRegistry()
+ */
+public class MenuRegistry {
+
+    private static final long DEBOUNCE_MILLIS = 500;
+
+    private final File directory;
+    private final Map<String, ClickHandler> actions;
+    private final AtomicReference<Map<String, Definition>> definitions;
+    private final Object reloadLock;
+    private final AtomicLong generation;
+    private WatchService watchService;
+
+    /**
+     * Creates a new {@link MenuRegistry} without any menus. Call {@link #reload()} to load the menus.
+     *
+     * @param directory The directory of the menu files.
+     * @since 1.1.0
+     */
+    public MenuRegistry(File directory) {
+        this.directory = directory;
+        this.actions = new ConcurrentHashMap<>();
+        this.definitions = new AtomicReference<>(Collections.emptyMap());
+        this.reloadLock = new Object();
+        this.generation = new AtomicLong();
+        registerAction("close", event -> Bukkit.getScheduler().runTask(InventoryApiRegister.getPlugin(),
+                () -> event.getWhoClicked().closeInventory()));
+    }
+
+    /**
+     * Registers an action which can be bound to icons with {@code action: <name>}.
+     * An action that was registered with the same name before is replaced, also in menus that are already loaded.
+     *
+     * @param name    The name of the action.
+     * @param handler The {@link ClickHandler} of the action.
+     * @throws IllegalArgumentException if name or handler is null.
+     * @since 1.1.0
+     */
+    public void registerAction(String name, ClickHandler handler) {
+        if (name == null || handler == null) throw new IllegalArgumentException("name and handler cannot be null");
+        actions.put(name, handler);
+    }
+
+    /**
+     * Removes an action. Icons which are bound to the action ignore clicks afterwards.
+     *
+     * @param name The name of the action.
+     * @since 1.1.0
+     */
+    public void unregisterAction(String name) {
+        actions.remove(name);
+    }
+
+    /**
+     * Returns the compiled template of a menu.
+     *
+     * @param id The id of the menu.
+     * @return An {@link Optional} with the {@link MenuTemplate} or an empty {@link Optional} if there is no such menu.
+     * @since 1.1.0
+     */
+    public Optional<MenuTemplate> getTemplate(String id) {
+        Definition definition = definitions.get().get(id);
+        return definition == null ? Optional.empty() : Optional.of(definition.template);
+    }
+
+    /**
+     * Opens a menu for the given player.
+     *
+     * @param player The player who should get the menu.
+     * @param id     The id of the menu.
+     * @return The {@link InventoryManager} of the opened menu.
+     * @throws IllegalArgumentException if there is no menu with the given id.
+     * @since 1.1.0
+     */
+    public InventoryManager open(Player player, String id) {
+        MenuTemplate template = getTemplate(id).orElseThrow(() -> new IllegalArgumentException("unknown menu " + id));
+        return template.open(player);
+    }
+
+    /**
+     * Returns the ids of all loaded menus.
+     *
+     * @return An unmodifiable {@link Set} of the ids.
+     * @since 1.1.0
+     */
+    public Set<String> getMenuIds() {
+        return definitions.get().keySet();
+    }
+
+    /**
+     * Loads all menu files that changed since the last call and replaces the loaded menus in one step.
+     * The files are parsed in parallel and this method waits until all files are parsed.
+     * On the main thread the menus are replaced before this method returns. On any other thread they are replaced
+     * in the next tick, unless a later call of this method replaced them first.
+     *
+     * @return The number of files that were parsed.
+     * @since 1.1.0
+     */
+    public int reload() {
+        synchronized (reloadLock) {
+            File[] files = directory.listFiles((dir, name) -> name.endsWith(".yml") || name.endsWith(".yaml"));
+            if (files == null) files = new File[0];
+            Map<String, Definition> current = definitions.get();
+            Map<String, Definition> next = new HashMap<>();
+            Map<String, Future<Menu>> parsing = new HashMap<>();
+            for (File file : files) {
+                String id = file.getName().substring(0, file.getName().lastIndexOf('.'));
+                Definition definition = current.get(id);
+                if (definition != null && definition.isUpToDate(file)) {
+                    next.put(id, definition);
+                    continue;
+                }
+                parsing.put(id, InventoryApiRegister.getWorkerPool().submit(() -> parse(file, id)));
+            }
+            Map<String, Menu> parsed = new HashMap<>();
+            for (Map.Entry<String, Future<Menu>> entry : parsing.entrySet()) {
+                try {
+                    parsed.put(entry.getKey(), entry.getValue().get());
+                } catch (ExecutionException exception) {
+                    InventoryApiRegister.getPlugin().getLogger().log(Level.WARNING,
+                            "Could not load menu " + entry.getKey(), exception.getCause());
+                    Definition definition = current.get(entry.getKey());
+                    if (definition != null) next.put(entry.getKey(), definition);
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    return 0;
+                }
+            }
+            long reloadGeneration = generation.incrementAndGet();
+            if (Bukkit.isPrimaryThread()) {
+                install(reloadGeneration, current, next, parsed);
+            } else {
+                Bukkit.getScheduler().runTask(InventoryApiRegister.getPlugin(), () -> install(reloadGeneration, current, next, parsed));
+            }
+            return parsing.size();
+        }
+    }
+
+    /**
+     * Starts watching the menus folder. Menus are reloaded in the background when a file is created, changed or deleted.
+     * Calling this method more than once has no effect.
+     *
+     * @since 1.1.0
+     */
+    public synchronized void watch() {
+        if (watchService != null) return;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            InventoryApiRegister.getPlugin().getLogger().warning("Could not create " + directory + ", menu files are not watched");
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException exception) {
+            InventoryApiRegister.getPlugin().getLogger().log(Level.WARNING, "Could not watch " + directory, exception);
+            return;
+        }
+        WatchService service = watchService;
+        InventoryApiRegister.threadFactory("InventoryManager-MenuWatcher-").newThread(() -> watch(service)).start();
+    }
+
+    /**
+     * Stops watching the menus folder.
+     *
+     * @since 1.1.0
+     */
+    public synchronized void close() {
+        if (watchService == null) return;
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+        }
+        watchService = null;
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                Thread.sleep(DEBOUNCE_MILLIS);
+                do {
+                    key.pollEvents();
+                    key.reset();
+                } while ((key = service.poll()) != null);
+                reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+        }
+    }
+
+    private void install(long reloadGeneration, Map<String, Definition> current, Map<String, Definition> next, Map<String, Menu> parsed) {
+        if (generation.get() != reloadGeneration) return;
+        for (Map.Entry<String, Menu> entry : parsed.entrySet()) {
+            try {
+                next.put(entry.getKey(), compile(entry.getValue()));
+            } catch (RuntimeException exception) {
+                InventoryApiRegister.getPlugin().getLogger().log(Level.WARNING, "Could not load menu " + entry.getKey(), exception);
+                Definition definition = current.get(entry.getKey());
+                if (definition != null) next.put(entry.getKey(), definition);
+            }
+        }
+        definitions.set(Collections.unmodifiableMap(next));
+    }
+
+    private static Menu parse(File file, String id) throws IOException, InvalidConfigurationException {
+        long lastModified = file.lastModified();
+        long length = file.length();
+        YamlConfiguration config = new YamlConfiguration();
+        config.load(file);
+        List<String> layout = config.getStringList("layout");
+        int size = config.getInt("size", layout.size() * 9);
+        if (size < 9 || size > 54 || size % 9 != 0)
+            throw new IllegalArgumentException("size must be a multiple of 9 between 9 and 54");
+        if (layout.size() > size / 9) throw new IllegalArgumentException("layout has more rows than the menu");
+        Menu menu = new Menu(file, lastModified, length, size, ChatColor.translateAlternateColorCodes('&',
+                config.getString("title", id)), config.getBoolean("canceled", true));
+
+        Map<Character, Placement> symbols = new HashMap<>();
+        ConfigurationSection icons = config.getConfigurationSection("icons");
+        if (icons != null) {
+            for (String key : icons.getKeys(false)) {
+                ConfigurationSection section = icons.getConfigurationSection(key);
+                if (section == null) throw new IllegalArgumentException("icon " + key + " is not a section");
+                Placement placement = new Placement(icon(section), section.getString("action"));
+                List<Integer> slots = new ArrayList<>(section.getIntegerList("slots"));
+                if (section.isInt("slot")) slots.add(section.getInt("slot"));
+                for (int slot : slots) {
+                    if (slot < 0 || slot >= size) throw new IllegalArgumentException("slot " + slot + " of icon " + key + " is outside the menu");
+                    menu.slots[slot] = placement;
+                }
+                if (key.length() == 1) symbols.put(key.charAt(0), placement);
+            }
+        }
+        for (int row = 0; row < layout.size(); row++) {
+            String line = layout.get(row);
+            if (line.length() > 9) throw new IllegalArgumentException("row " + (row + 1) + " of the layout is longer than 9 slots");
+            for (int column = 0; column < line.length(); column++) {
+                char symbol = line.charAt(column);
+                if (symbol == ' ') continue;
+                Placement placement = symbols.get(symbol);
+                if (placement == null) throw new IllegalArgumentException("unknown icon " + symbol + " in row " + (row + 1) + " of the layout");
+                menu.slots[row * 9 + column] = placement;
+            }
+        }
+        return menu;
+    }
+
+    private Definition compile(Menu menu) {
+        MenuTemplate template = new MenuTemplate(menu.size, menu.title, menu.canceled);
+        for (int slot = 0; slot < menu.slots.length; slot++) {
+            if (menu.slots[slot] != null) place(template, slot, menu.slots[slot]);
+        }
+        return new Definition(menu.file, menu.lastModified, menu.length, template.compile());
+    }
+
+    private void place(MenuTemplate template, int slot, Placement placement) {
+        CachedIcon cachedIcon = IconFactory.getInstance().get(placement.icon);
+        String action = placement.action;
+        if (action == null) {
+            template.setIcon(slot, cachedIcon.getItemStack());
+            return;
+        }
+        template.setItem(new CustomItem(slot, cachedIcon) {
+            @Override
+            public void onClick(InventoryClickEvent event) {
+                ClickHandler handler = actions.get(action);
+                if (handler == null) {
+                    InventoryApiRegister.getPlugin().getLogger().warning("Unknown menu action " + action);
+                    return;
+                }
+                handler.onClick(event);
+            }
+        });
+    }
+
+    private static Icon icon(ConfigurationSection section) {
+        String materialName = section.getString("material");
+        Material material = materialName == null ? null : Material.matchMaterial(materialName);
+        if (material == null) throw new IllegalArgumentException("unknown material " + materialName + " of icon " + section.getCurrentPath());
+        Icon icon = new Icon(material);
+        if (section.contains("name")) icon.name(ChatColor.translateAlternateColorCodes('&', section.getString("name")));
+        List<String> lore = new ArrayList<>();
+        for (String line : section.getStringList("lore")) {
+            lore.add(ChatColor.translateAlternateColorCodes('&', line));
+        }
+        icon.lore(lore);
+        List<ItemFlag> flags = new ArrayList<>();
+        for (String flag : section.getStringList("flags")) {
+            try {
+                flags.add(ItemFlag.valueOf(flag.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException exception) {
+                throw new IllegalArgumentException("unknown flag " + flag + " of icon " + section.getCurrentPath());
+            }
+        }
+        icon.flags(flags.toArray(new ItemFlag[0]));
+        if (section.isInt("custom-model-data")) icon.customModelData(section.getInt("custom-model-data"));
+        return icon;
+    }
+
+    private static final class Menu {
+
+        private final File file;
+        private final long lastModified;
+        private final long length;
+        private final int size;
+        private final String title;
+        private final boolean canceled;
+        private final Placement[] slots;
+
+        private Menu(File file, long lastModified, long length, int size, String title, boolean canceled) {
+            this.file = file;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.size = size;
+            this.title = title;
+            this.canceled = canceled;
+            this.slots = new Placement[size];
+        }
+    }
+
+    private static final class Placement {
+
+        private final Icon icon;
+        private final String action;
+
+        private Placement(Icon icon, String action) {
+            this.icon = icon;
+            this.action = action;
+        }
+    }
+
+    private static final class Definition {
+
+        private final File file;
+        private final long lastModified;
+        private final long length;
+        private final MenuTemplate template;
+
+        private Definition(File file, long lastModified, long length, MenuTemplate template) {
+            this.file = file;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.template = template;
+        }
+
+        private boolean isUpToDate(File file) {
+            return this.file.equals(file) && file.lastModified() == lastModified && file.length() == length;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * This class is used to spread refresh, build and teardown work of {@link InventoryManager}s over several ticks.
+ * Jobs are queued per {@link InventoryManager} and drained every tick until the budget of the tick is used up.
+ * Work that does not fit into the budget is carried over to the next tick.
+ * {@link InventoryManager}s that were clicked recently are served first, all other {@link InventoryManager}s are served
+ * round-robin with one job at a time, so a single inventory can't starve the others.
+ * Jobs can be scheduled from any thread, but they always run on the main thread.
+ * A job may cancel the jobs of its own {@link InventoryManager}, for example by closing the inventory.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see InventoryApiRegister#getScheduler()
+ * @see InventoryManager#startRefresh(long)
+ */
+public class MenuScheduler implements Runnable {
+
+    private static final long ACTIVE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final ConcurrentLinkedQueue<Job> incoming;
+    private final Map<InventoryManager, ArrayDeque<Job>> queues;
+    private final ArrayDeque<InventoryManager> roundRobin;
+    private final Set<InventoryManager> pendingRefreshes;
+    private final AtomicInteger queueDepth;
+    private final LongAdder executedJobs;
+    private final LongAdder budgetOverruns;
+    private final LongAdder carriedOverTicks;
+    private volatile long budgetNanos;
+
+    /**
+     * Creates a new {@link MenuScheduler}.
+     *
+     * @param budgetNanos The time in nanoseconds the scheduler may use per tick.
+     * @since 1.1.0
+     */
+    public MenuScheduler(long budgetNanos) {
+        this.incoming = new ConcurrentLinkedQueue<>();
+        this.queues = new HashMap<>();
+        this.roundRobin = new ArrayDeque<>();
+        this.pendingRefreshes = ConcurrentHashMap.newKeySet();
+        this.queueDepth = new AtomicInteger();
+        this.executedJobs = new LongAdder();
+        this.budgetOverruns = new LongAdder();
+        this.carriedOverTicks = new LongAdder();
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Schedules a job for the given {@link InventoryManager}.
+     *
+     * @param inventoryManager The {@link InventoryManager} the job belongs to.
+     * @param job              The job which should run on the main thread.
+     * @throws IllegalArgumentException if inventoryManager or job is null.
+     * @since 1.1.0
+     */
+    public void schedule(InventoryManager inventoryManager, Runnable job) {
+        if (inventoryManager == null || job == null)
+            throw new IllegalArgumentException("inventoryManager and job cannot be null");
+        queueDepth.incrementAndGet();
+        incoming.add(new Job(inventoryManager, job));
+    }
+
+    /**
+     * Schedules a {@link InventoryManager#refresh()} of the given {@link InventoryManager}.
+     * If a refresh of the {@link InventoryManager} is already queued, nothing is scheduled.
+     *
+     * @param inventoryManager The {@link InventoryManager} which should be refreshed.
+     * @since 1.1.0
+     */
+    public void scheduleRefresh(InventoryManager inventoryManager) {
+        if (pendingRefreshes.add(inventoryManager)) {
+            schedule(inventoryManager, () -> {
+                pendingRefreshes.remove(inventoryManager);
+                inventoryManager.refresh();
+            });
+        }
+    }
+
+    /**
+     * Removes all queued jobs of the given {@link InventoryManager}. It must be called on the main thread.
+     *
+     * @param inventoryManager The {@link InventoryManager} whose jobs should be removed.
+     * @since 1.1.0
+     */
+    public void cancel(InventoryManager inventoryManager) {
+        pendingRefreshes.remove(inventoryManager);
+        incoming.removeIf(job -> {
+            if (job.inventoryManager != inventoryManager) return false;
+            queueDepth.decrementAndGet();
+            return true;
+        });
+        ArrayDeque<Job> queue = queues.remove(inventoryManager);
+        if (queue != null) {
+            queueDepth.addAndGet(-queue.size());
+            roundRobin.remove(inventoryManager);
+        }
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        Job incomingJob;
+        while ((incomingJob = incoming.poll()) != null) {
+            ArrayDeque<Job> queue = queues.get(incomingJob.inventoryManager);
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                queues.put(incomingJob.inventoryManager, queue);
+                roundRobin.add(incomingJob.inventoryManager);
+            }
+            queue.add(incomingJob);
+        }
+        long budget = budgetNanos;
+        long activeSince = start - ACTIVE_WINDOW_NANOS;
+        boolean ran = false;
+        boolean active = true;
+        while (!roundRobin.isEmpty()) {
+            boolean ranActive = false;
+            int owners = roundRobin.size();
+            for (int i = 0; i < owners; i++) {
+                if (ran && System.nanoTime() - start >= budget) {
+                    finish(start, budget);
+                    return;
+                }
+                InventoryManager inventoryManager = roundRobin.poll();
+                ArrayDeque<Job> queue = queues.get(inventoryManager);
+                if (queue == null) continue;
+                if (active && inventoryManager.getLastClickNanos() - activeSince < 0) {
+                    roundRobin.add(inventoryManager);
+                    continue;
+                }
+                runJob(queue.poll());
+                ran = true;
+                ranActive |= active;
+                if (queues.get(inventoryManager) != queue) continue;
+                if (queue.isEmpty()) {
+                    queues.remove(inventoryManager);
+                } else {
+                    roundRobin.add(inventoryManager);
+                }
+            }
+            if (!ranActive) active = false;
+        }
+        finish(start, budget);
+    }
+
+    /**
+     * Sets the time the scheduler may use per tick.
+     *
+     * @param budgetNanos The budget in nanoseconds.
+     * @since 1.1.0
+     */
+    public void setBudgetNanos(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Returns the time the scheduler may use per tick.
+     *
+     * @return The budget in nanoseconds.
+     * @since 1.1.0
+     */
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    /**
+     * Returns the number of queued jobs.
+     *
+     * @return The number of queued jobs.
+     * @since 1.1.0
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Returns the number of jobs that were executed.
+     *
+     * @return The number of executed jobs.
+     * @since 1.1.0
+     */
+    public long getExecutedJobs() {
+        return executedJobs.sum();
+    }
+
+    /**
+     * Returns the number of ticks in which the jobs took longer than the budget.
+     *
+     * @return The number of budget overruns.
+     * @since 1.1.0
+     */
+    public long getBudgetOverruns() {
+        return budgetOverruns.sum();
+    }
+
+    /**
+     * Returns the number of ticks in which jobs were left over for the next tick.
+     *
+     * @return The number of ticks with carried over jobs.
+     * @since 1.1.0
+     */
+    public long getCarriedOverTicks() {
+        return carriedOverTicks.sum();
+    }
+
+    private void runJob(Job job) {
+        queueDepth.decrementAndGet();
+        executedJobs.increment();
+        try {
+            job.job.run();
+        } catch (RuntimeException exception) {
+            InventoryApiRegister.getPlugin().getLogger().log(Level.WARNING,
+                    "Scheduled job of inventory " + job.inventoryManager.getName() + " failed", exception);
+        }
+    }
+
+    private void finish(long start, long budget) {
+        if (System.nanoTime() - start > budget) budgetOverruns.increment();
+        if (!roundRobin.isEmpty()) carriedOverTicks.increment();
+    }
+
+    private static final class Job {
+
+        private final InventoryManager inventoryManager;
+        private final Runnable job;
+
+        private Job(InventoryManager inventoryManager, Runnable job) {
+            this.inventoryManager = inventoryManager;
+            this.job = job;
+        }
+    }
+}
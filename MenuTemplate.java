@@ -0,0 +1,193 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * This class is used to define a menu once and open it for many players.
+ * The slots, {@link CustomItem}s and static icons are defined before the template is compiled.
+ * Compiling turns the template into an immutable contents array and a dispatch table
+ * which are shared by every {@link InventoryManager} that is opened from this template.
+ * Only the dynamic slots are rendered per player with their {@link SlotRenderer}.
+ * <br>
+ * <b> NOTE: The {@link CustomItem}s of a template are not added to the {@link CustomItemInventoryCache}. </b>
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see InventoryManager
+ * @see SlotRenderer
+ */
+public class MenuTemplate {
+
+    private final int size;
+    private final String name;
+    private final boolean canceled;
+    private final ItemStack[] contents;
+    private final CustomItem[] customItems;
+    private final Map<Integer, SlotRenderer> rendererMap;
+    private int[] dynamicSlots;
+    private SlotRenderer[] renderers;
+    private volatile boolean compiled;
+
+    /**
+     * Creates a new empty {@link MenuTemplate}.
+     *
+     * @param size     The size of the inventory.
+     * @param name     The name of the inventory.
+     * @param canceled If the inventory should be canceled.
+     * @since 1.1.0
+     */
+    public MenuTemplate(int size, String name, boolean canceled) {
+        this.size = size;
+        this.name = name;
+        this.canceled = canceled;
+        this.contents = new ItemStack[size];
+        this.customItems = new CustomItem[size];
+        this.rendererMap = new TreeMap<>();
+    }
+
+    /**
+     * Sets a {@link CustomItem} in the slot of the {@link CustomItem}.
+     *
+     * @param customItem The {@link CustomItem} which should be set.
+     * @throws IllegalStateException if the template is already compiled.
+     * @see CustomItem
+     * @since 1.1.0
+     */
+    public void setItem(CustomItem customItem) {
+        checkNotCompiled();
+        this.contents[customItem.slot] = customItem.itemStack;
+        this.customItems[customItem.slot] = customItem;
+        this.rendererMap.remove(customItem.slot);
+    }
+
+    /**
+     * Sets a static icon without a click handler.
+     *
+     * @param slot      The slot of the icon.
+     * @param itemStack The {@link ItemStack} of the icon.
+     * @throws IllegalStateException if the template is already compiled.
+     * @since 1.1.0
+     */
+    public void setIcon(int slot, ItemStack itemStack) {
+        checkNotCompiled();
+        this.contents[slot] = itemStack;
+        this.customItems[slot] = null;
+        this.rendererMap.remove(slot);
+    }
+
+    /**
+     * Sets a dynamic slot which is rendered each time the template is opened.
+     *
+     * @param slot     The slot which should be rendered.
+     * @param renderer The {@link SlotRenderer} which renders the slot.
+     * @throws IllegalStateException if the template is already compiled.
+     * @see SlotRenderer
+     * @since 1.1.0
+     */
+    public void setDynamicItem(int slot, SlotRenderer renderer) {
+        if (renderer == null) throw new IllegalArgumentException("renderer cannot be null");
+        checkNotCompiled();
+        this.contents[slot] = null;
+        this.customItems[slot] = null;
+        this.rendererMap.put(slot, renderer);
+    }
+
+    /**
+     * Compiles the template. After this call the template can no longer be changed.
+     * Calling this method more than once has no effect.
+     *
+     * @return This template.
+     * @since 1.1.0
+     */
+    public synchronized MenuTemplate compile() {
+        if (compiled) return this;
+        this.dynamicSlots = new int[rendererMap.size()];
+        this.renderers = new SlotRenderer[rendererMap.size()];
+        int i = 0;
+        for (Map.Entry<Integer, SlotRenderer> entry : rendererMap.entrySet()) {
+            this.dynamicSlots[i] = entry.getKey();
+            this.renderers[i] = entry.getValue();
+            i++;
+        }
+        this.compiled = true;
+        return this;
+    }
+
+    /**
+     * Opens this template for the given player.
+     * The template is compiled if it is not compiled yet.
+     *
+     * @param player The player who should get the inventory.
+     * @return The {@link InventoryManager} of the opened inventory.
+     * @see InventoryManager#InventoryManager(Player, MenuTemplate)
+     * @since 1.1.0
+     */
+    public InventoryManager open(Player player) {
+        return new InventoryManager(player, this);
+    }
+
+    /**
+     * Returns if the template is compiled.
+     *
+     * @return If the template is compiled.
+     * @since 1.1.0
+     */
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Returns the size of the {@link Inventory}.
+     *
+     * @return The size of the {@link Inventory}.
+     * @since 1.1.0
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the name of the {@link Inventory}.
+     *
+     * @return The name of the {@link Inventory}.
+     * @since 1.1.0
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns if the {@link Inventory} is canceled.
+     *
+     * @return If the {@link Inventory} is canceled.
+     * @since 1.1.0
+     */
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    ItemStack[] getContents() {
+        return contents;
+    }
+
+    CustomItem[] getCustomItems() {
+        return customItems;
+    }
+
+    int[] getDynamicSlots() {
+        return dynamicSlots;
+    }
+
+    SlotRenderer[] getRenderers() {
+        return renderers;
+    }
+
+    private void checkNotCompiled() {
+        if (compiled) throw new IllegalStateException("template is already compiled");
+    }
+}
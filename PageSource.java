@@ -0,0 +1,65 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * This interface is used to provide the {@link CustomItem}s of a {@link PagedInventoryManager}.
+ * Only the items of the visible page are fetched, so the source can be backed by a list,
+ * a database cursor or anything else that can be read by offset.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see PagedInventoryManager
+ */
+public interface PageSource {
+
+    /**
+     * Returns the number of items of this source.
+     *
+     * @return The number of items of this source.
+     * @since 1.1.0
+     */
+    int size();
+
+    /**
+     * Fetches the items starting at the given offset.
+     * The slots of the returned {@link CustomItem}s are ignored.
+     *
+     * @param offset The index of the first item.
+     * @param limit  The maximum number of items.
+     * @return The fetched items, at most limit items.
+     * @since 1.1.0
+     */
+    List<CustomItem> fetch(int offset, int limit);
+
+    /**
+     * Creates a {@link PageSource} for a random access list.
+     * The {@link CustomItem}s are only created for the items that are fetched.
+     *
+     * @param list     The list of the entries.
+     * @param renderer The function that creates the {@link CustomItem} for an entry.
+     * @param <T>      The type of the entries.
+     * @return The {@link PageSource} for the list.
+     * @since 1.1.0
+     */
+    static <T> PageSource of(List<T> list, Function<T, CustomItem> renderer) {
+        return new PageSource() {
+            @Override
+            public int size() {
+                return list.size();
+            }
+
+            @Override
+            public List<CustomItem> fetch(int offset, int limit) {
+                int end = Math.min(list.size(), offset + limit);
+                List<CustomItem> items = new ArrayList<>(Math.max(0, end - offset));
+                for (int i = offset; i < end; i++) {
+                    items.add(renderer.apply(list.get(i)));
+                }
+                return items;
+            }
+        };
+    }
+}
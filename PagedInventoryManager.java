@@ -0,0 +1,315 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+
+/**
+ * This class is used to create an inventory that shows the items of a {@link PageSource} page by page.
+ * Only the {@link CustomItem}s of the visible page are fetched, so the memory stays proportional to the page size.
+ * The navigation items are placed in their own slots and are only shown if there is a page to navigate to.
+ * If prefetching is enabled, the next page is fetched on the worker pool after a page was shown and handed back to the main thread,
+ * so the {@link PageSource} must then be safe to call from another thread.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see PageSource
+ * @see InventoryManager
+ */
+public class PagedInventoryManager extends InventoryManager {
+
+    private PageSource source;
+    private final int[] contentSlots;
+    private final int previousSlot;
+    private final int nextSlot;
+    private ItemStack previousItem;
+    private ItemStack nextItem;
+    private int page;
+    private boolean prefetch;
+    private int prefetchedPage = -1;
+    private List<CustomItem> prefetchedItems;
+    private int renderGeneration;
+
+    /**
+     * Creates a new paged inventory for a player.
+     * The last row is used for the navigation, all other slots show the items of the page.
+     *
+     * @param player   The player who should get the inventory.
+     * @param size     The size of the inventory, at least two rows.
+     * @param name     The name of the inventory.
+     * @param canceled If the inventory should be canceled.
+     * @param source   The {@link PageSource} of the items.
+     * @throws IllegalArgumentException if size is less than 18 or source is null.
+     * @since 1.1.0
+     */
+    public PagedInventoryManager(Player player, int size, String name, boolean canceled, PageSource source) {
+        this(player, size, name, canceled, source, contentSlots(size), size - 9, size - 1);
+    }
+
+    /**
+     * Creates a new paged inventory for a player with a custom layout.
+     *
+     * @param player       The player who should get the inventory.
+     * @param size         The size of the inventory.
+     * @param name         The name of the inventory.
+     * @param canceled     If the inventory should be canceled.
+     * @param source       The {@link PageSource} of the items.
+     * @param contentSlots The slots that show the items of the page.
+     * @param previousSlot The slot of the previous page item.
+     * @param nextSlot     The slot of the next page item.
+     * @throws IllegalArgumentException if source is null, contentSlots is empty, a slot is outside of the inventory
+     *                                  or the navigation slots overlap each other or the content slots.
+     * @since 1.1.0
+     */
+    public PagedInventoryManager(Player player, int size, String name, boolean canceled, PageSource source,
+                                 int[] contentSlots, int previousSlot, int nextSlot) {
+        super(player.getUniqueId(), size, name, canceled);
+        if (source == null || contentSlots == null || contentSlots.length == 0)
+            throw new IllegalArgumentException("source cannot be null and contentSlots cannot be empty");
+        if (previousSlot < 0 || previousSlot >= size || nextSlot < 0 || nextSlot >= size || previousSlot == nextSlot)
+            throw new IllegalArgumentException("previousSlot and nextSlot must be different slots of the inventory");
+        for (int slot : contentSlots) {
+            if (slot < 0 || slot >= size)
+                throw new IllegalArgumentException("content slot " + slot + " is outside of the inventory");
+            if (slot == previousSlot || slot == nextSlot)
+                throw new IllegalArgumentException("content slot " + slot + " overlaps a navigation slot");
+        }
+        this.source = source;
+        this.contentSlots = contentSlots.clone();
+        this.previousSlot = previousSlot;
+        this.nextSlot = nextSlot;
+        this.previousItem = new Icon(Material.ARROW).name("Previous page").build().getItemStack();
+        this.nextItem = new Icon(Material.ARROW).name("Next page").build().getItemStack();
+        renderPage();
+        open(player);
+    }
+
+    /**
+     * Returns the index of the visible page, starting at 0.
+     *
+     * @return The index of the visible page.
+     * @since 1.1.0
+     */
+    public int getPage() {
+        return page;
+    }
+
+    /**
+     * Returns the number of pages. There is always at least one page.
+     *
+     * @return The number of pages.
+     * @since 1.1.0
+     */
+    public int getPageCount() {
+        return Math.max(1, (source.size() + contentSlots.length - 1) / contentSlots.length);
+    }
+
+    /**
+     * Shows the given page. The page is clamped to the existing pages.
+     *
+     * @param page The index of the page.
+     * @since 1.1.0
+     */
+    public void setPage(int page) {
+        this.page = Math.max(0, Math.min(page, getPageCount() - 1));
+        renderPage();
+    }
+
+    /**
+     * Shows the next page if there is one.
+     *
+     * @since 1.1.0
+     */
+    public void nextPage() {
+        setPage(page + 1);
+    }
+
+    /**
+     * Shows the previous page if there is one.
+     *
+     * @since 1.1.0
+     */
+    public void previousPage() {
+        setPage(page - 1);
+    }
+
+    /**
+     * Renders the visible page again, for example after the {@link PageSource} changed.
+     *
+     * @since 1.1.0
+     */
+    public void reload() {
+        prefetchedPage = -1;
+        prefetchedItems = null;
+        setPage(page);
+    }
+
+    /**
+     * Replaces the {@link PageSource} and shows its first page, for example the result of a new search.
+     *
+     * @param source The new {@link PageSource}.
+     * @throws IllegalArgumentException if source is null.
+     * @see CatalogIndex#search(String)
+     * @since 1.1.0
+     */
+    public void setSource(PageSource source) {
+        if (source == null) throw new IllegalArgumentException("source cannot be null");
+        this.source = source;
+        this.page = 0;
+        reload();
+    }
+
+    /**
+     * Renders the visible page again when a subscribed key was published.
+     *
+     * @see #subscribe(String)
+     * @since 1.1.0
+     */
+    @Override
+    protected void onInvalidated() {
+        reload();
+    }
+
+    /**
+     * Returns if the next page is prefetched.
+     *
+     * @return If the next page is prefetched.
+     * @since 1.1.0
+     */
+    public boolean isPrefetch() {
+        return prefetch;
+    }
+
+    /**
+     * Enables or disables prefetching of the next page.
+     * The next page is fetched on the worker pool of the {@link InventoryApiRegister}, so the {@link PageSource}
+     * must be safe to call from another thread while prefetching is enabled.
+     *
+     * @param prefetch If the next page should be prefetched.
+     * @since 1.1.0
+     */
+    public void setPrefetch(boolean prefetch) {
+        this.prefetch = prefetch;
+        if (!prefetch) {
+            prefetchedPage = -1;
+            prefetchedItems = null;
+        }
+    }
+
+    /**
+     * Sets the {@link ItemStack} of the previous page item.
+     *
+     * @param previousItem The {@link ItemStack} of the previous page item.
+     * @since 1.1.0
+     */
+    public void setPreviousPageItem(ItemStack previousItem) {
+        this.previousItem = previousItem;
+        renderNavigation();
+    }
+
+    /**
+     * Sets the {@link ItemStack} of the next page item.
+     *
+     * @param nextItem The {@link ItemStack} of the next page item.
+     * @since 1.1.0
+     */
+    public void setNextPageItem(ItemStack nextItem) {
+        this.nextItem = nextItem;
+        renderNavigation();
+    }
+
+    private void renderPage() {
+        int generation = ++renderGeneration;
+        List<CustomItem> items;
+        if (page == prefetchedPage) {
+            items = prefetchedItems;
+        } else {
+            items = source.fetch(page * contentSlots.length, contentSlots.length);
+        }
+        prefetchedPage = -1;
+        prefetchedItems = null;
+        ItemStack[] contents = getInventory().getContents();
+        CustomItem[] customItems = copyCustomItems();
+        for (int i = 0; i < contentSlots.length; i++) {
+            CustomItem customItem = i < items.size() ? items.get(i) : null;
+            contents[contentSlots[i]] = customItem == null ? null : customItem.itemStack;
+            customItems[contentSlots[i]] = customItem;
+        }
+        renderNavigation(contents, customItems);
+        applyContents(contents, customItems);
+        if (prefetch && page + 1 < getPageCount()) prefetch(page + 1, generation);
+    }
+
+    private void prefetch(int pageToFetch, int generation) {
+        PageSource source = this.source;
+        int offset = pageToFetch * contentSlots.length;
+        int limit = contentSlots.length;
+        try {
+            InventoryApiRegister.getWorkerPool().execute(() -> {
+                List<CustomItem> items;
+                try {
+                    items = source.fetch(offset, limit);
+                } catch (RuntimeException exception) {
+                    InventoryApiRegister.getPlugin().getLogger().log(Level.WARNING,
+                            "Could not prefetch page " + pageToFetch + " of inventory " + getName(), exception);
+                    return;
+                }
+                InventoryApiRegister.getScheduler().schedule(this, () -> {
+                    if (prefetch && generation == renderGeneration) {
+                        prefetchedItems = items;
+                        prefetchedPage = pageToFetch;
+                    }
+                });
+            });
+        } catch (RejectedExecutionException ignored) {
+        }
+    }
+
+    private void renderNavigation() {
+        ItemStack[] contents = getInventory().getContents();
+        CustomItem[] customItems = copyCustomItems();
+        renderNavigation(contents, customItems);
+        applyContents(contents, customItems);
+    }
+
+    private void renderNavigation(ItemStack[] contents, CustomItem[] customItems) {
+        if (page > 0) {
+            contents[previousSlot] = previousItem;
+            customItems[previousSlot] = new CustomItem(previousSlot, previousItem) {
+                @Override
+                public void onClick(InventoryClickEvent event) {
+                    previousPage();
+                }
+            };
+        } else {
+            contents[previousSlot] = null;
+            customItems[previousSlot] = null;
+        }
+        if (page + 1 < getPageCount()) {
+            contents[nextSlot] = nextItem;
+            customItems[nextSlot] = new CustomItem(nextSlot, nextItem) {
+                @Override
+                public void onClick(InventoryClickEvent event) {
+                    nextPage();
+                }
+            };
+        } else {
+            contents[nextSlot] = null;
+            customItems[nextSlot] = null;
+        }
+    }
+
+    private static int[] contentSlots(int size) {
+        if (size < 18) throw new IllegalArgumentException("size must be at least 18");
+        int[] slots = new int[size - 9];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = i;
+        }
+        return slots;
+    }
+}
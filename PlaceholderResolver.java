@@ -0,0 +1,25 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.entity.Player;
+
+/**
+ * This interface is used to resolve the value of a placeholder like {@code {clan}} for a player.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see TextTemplate
+ * @see InventoryManager#setPlaceholderResolver(PlaceholderResolver)
+ */
+@FunctionalInterface
+public interface PlaceholderResolver {
+
+    /**
+     * Resolves the value of the placeholder for the given player.
+     *
+     * @param player The player the value is resolved for or null if the inventory has no single player.
+     * @param key    The key of the placeholder without braces.
+     * @return The value or null if the placeholder is unknown.
+     * @since 1.1.0
+     */
+    String resolve(Player player, String key);
+}
@@ -0,0 +1,97 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Creates a cache for the {@link SharedInventoryManager} class.
+ * This class is used to store one {@link SharedInventoryManager} per key, for example one per clan.
+ * A {@link SharedInventoryManager} removes itself from this cache when its last viewer leaves.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see SharedInventoryManager
+ */
+public class SharedInventoryCache {
+
+    private ConcurrentHashMap<String, SharedInventoryManager> inventoryHashMap;
+
+    public SharedInventoryCache() {
+        this.inventoryHashMap = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the Optional containing the {@link SharedInventoryManager} for the given key.
+     *
+     * @param key The key that should be searched for.
+     * @return Optional containing the {@link SharedInventoryManager} for the given key.
+     * @since 1.1.0
+     */
+    public Optional<SharedInventoryManager> getInventory(String key) {
+        return Optional.ofNullable(inventoryHashMap.get(key));
+    }
+
+    /**
+     * Returns the {@link SharedInventoryManager} for the given key or creates a new one if there is none.
+     *
+     * @param key      The key of the {@link SharedInventoryManager}.
+     * @param supplier The supplier that creates a new {@link SharedInventoryManager}.
+     * @return The cached or the newly created {@link SharedInventoryManager}.
+     * @throws IllegalArgumentException if key or supplier is null.
+     * @since 1.1.0
+     */
+    public SharedInventoryManager getOrCreate(String key, Supplier<SharedInventoryManager> supplier) {
+        if (key == null || supplier == null) throw new IllegalArgumentException("key and supplier cannot be null");
+        return inventoryHashMap.computeIfAbsent(key, k -> {
+            SharedInventoryManager inventoryManager = supplier.get();
+            inventoryManager.setKey(k);
+            return inventoryManager;
+        });
+    }
+
+    /**
+     * Removes the given {@link SharedInventoryManager} from the cache if it is still the one cached for the key.
+     *
+     * @param key              The key that should be removed from the cache.
+     * @param inventoryManager The {@link SharedInventoryManager} that is expected to be cached for the key.
+     * @throws IllegalArgumentException if key or inventoryManager is null.
+     * @since 1.1.0
+     */
+    public void removeInventory(String key, SharedInventoryManager inventoryManager) {
+        if (key == null || inventoryManager == null)
+            throw new IllegalArgumentException("key and inventoryManager cannot be null");
+        this.inventoryHashMap.remove(key, inventoryManager);
+    }
+
+    /**
+     * Returns the number of cached inventories.
+     *
+     * @return The number of cached inventories.
+     * @since 1.1.0
+     */
+    public int size() {
+        return this.inventoryHashMap.size();
+    }
+
+    /**
+     * Returns a snapshot of all cached {@link SharedInventoryManager}s.
+     *
+     * @return A copy of the cached {@link SharedInventoryManager}s.
+     * @since 1.1.0
+     */
+    public Collection<SharedInventoryManager> getInventories() {
+        return new ArrayList<>(this.inventoryHashMap.values());
+    }
+
+    /**
+     * Removes all {@link SharedInventoryManager}s from the cache.
+     *
+     * @since 1.1.0
+     */
+    public void clear() {
+        this.inventoryHashMap.clear();
+    }
+}
@@ -0,0 +1,155 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * This class is used to create an inventory that is viewed by many players at once.
+ * There is only one {@link Inventory} and one dispatch table for all viewers,
+ * so a change is written once and seen by every viewer.
+ * Each viewer gets a {@link ViewerSession} to store per-viewer state.
+ * The inventory is torn down when its last viewer leaves and cannot be opened again afterwards.
+ * <br>
+ * <b> NOTE: {@link #getPlayer()} and {@link #getUUID()} return null, use {@link #getViewers()} instead. </b>
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see InventoryManager
+ * @see SharedInventoryCache
+ * @see ViewerSession
+ */
+public class SharedInventoryManager extends InventoryManager {
+
+    private final Map<UUID, ViewerSession> viewers;
+    private String key;
+    private boolean tornDown;
+
+    /**
+     * Creates a new shared inventory without any viewers.
+     *
+     * @param size     The size of the inventory.
+     * @param name     The name of the inventory.
+     * @param canceled If the inventory should be canceled.
+     * @since 1.1.0
+     */
+    public SharedInventoryManager(int size, String name, boolean canceled) {
+        super((UUID) null, size, name, canceled);
+        this.viewers = new LinkedHashMap<>();
+    }
+
+    /**
+     * Opens the inventory for the given player and adds the player to the viewers.
+     * Nothing happens if the player already sees the inventory, because opening it again would close it first
+     * and remove the player from the viewers.
+     *
+     * @param player The player who should see the inventory.
+     * @throws IllegalStateException if the inventory is already torn down.
+     * @since 1.1.0
+     */
+    @Override
+    public void open(Player player) {
+        if (tornDown) throw new IllegalStateException("inventory is already torn down");
+        if (viewers.containsKey(player.getUniqueId()) && getInventory().equals(player.getOpenInventory().getTopInventory())) return;
+        viewers.computeIfAbsent(player.getUniqueId(), ViewerSession::new);
+        super.open(player);
+    }
+
+    /**
+     * Removes the player from the viewers and tears the inventory down if it was the last viewer.
+     *
+     * @param uuid The UUID of the player who closed the inventory.
+     * @since 1.1.0
+     */
+    @Override
+    protected void handleClose(UUID uuid) {
+        InventoryApiRegister.getCustomInventoryCache().removeInventory(uuid, this);
+        if (viewers.remove(uuid) != null && viewers.isEmpty()) {
+            tearDown();
+        }
+    }
+
+    /**
+     * Returns if the inventory is not torn down yet.
+     *
+     * @return If the inventory can be opened again.
+     * @since 1.1.0
+     */
+    @Override
+    protected boolean isReusable() {
+        return !tornDown;
+    }
+
+    /**
+     * Returns the UUIDs of all viewers.
+     *
+     * @return An unmodifiable view of the UUIDs of all viewers.
+     * @since 1.1.0
+     */
+    public Set<UUID> getViewers() {
+        return Collections.unmodifiableSet(viewers.keySet());
+    }
+
+    /**
+     * Returns the number of viewers.
+     *
+     * @return The number of viewers.
+     * @since 1.1.0
+     */
+    public int getViewerCount() {
+        return viewers.size();
+    }
+
+    /**
+     * Returns the {@link ViewerSession} of the given player.
+     *
+     * @param player The player whose session should be returned.
+     * @return The {@link ViewerSession} or null if the player is not a viewer.
+     * @since 1.1.0
+     */
+    public ViewerSession getSession(Player player) {
+        return viewers.get(player.getUniqueId());
+    }
+
+    /**
+     * Returns if the inventory is torn down.
+     *
+     * @return If the inventory is torn down.
+     * @since 1.1.0
+     */
+    public boolean isTornDown() {
+        return tornDown;
+    }
+
+    /**
+     * Returns the key of this inventory in the {@link SharedInventoryCache}.
+     *
+     * @return The key or null if the inventory is not cached.
+     * @since 1.1.0
+     */
+    public String getKey() {
+        return key;
+    }
+
+    void setKey(String key) {
+        this.key = key;
+    }
+
+    void tearDown() {
+        tornDown = true;
+        stopRefresh();
+        InventoryApiRegister.getScheduler().cancel(this);
+        pauseSubscriptions();
+        if (CustomItemInventoryCache.getInstance().containsInventoryManager(this)) {
+            CustomItemInventoryCache.getInstance().removeInventoryManager(this);
+        }
+        if (key != null) {
+            InventoryApiRegister.getSharedInventoryCache().removeInventory(key, this);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import java.util.BitSet;
+
+/**
+ * This interface is used to select slots of an {@link InventoryManager} for the bulk operations
+ * {@link InventoryManager#fill(SlotPattern, CustomItem)} and {@link InventoryManager#setItems(SlotPattern, java.util.List)}.
+ * The slots are selected for the size of the inventory, so the same pattern can be used for inventories of any size.
+ * All inventories are expected to have rows of 9 slots.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see InventoryManager#fill(SlotPattern, CustomItem)
+ */
+public interface SlotPattern {
+
+    /**
+     * Returns the selected slots of an inventory with the given size.
+     *
+     * @param size The size of the inventory.
+     * @return The selected slots. Slots outside the inventory are ignored.
+     * @since 1.1.0
+     */
+    BitSet slots(int size);
+
+    /**
+     * Creates a {@link SlotPattern} which selects the given slots.
+     *
+     * @param slots The slots which should be selected.
+     * @return The {@link SlotPattern}.
+     * @since 1.1.0
+     */
+    static SlotPattern of(int... slots) {
+        BitSet selected = new BitSet();
+        for (int slot : slots) {
+            selected.set(slot);
+        }
+        return size -> {
+            BitSet copy = (BitSet) selected.clone();
+            if (copy.length() > size) copy.clear(size, copy.length());
+            return copy;
+        };
+    }
+
+    /**
+     * Creates a {@link SlotPattern} which selects a range of slots.
+     *
+     * @param from The first slot of the range.
+     * @param to   The slot after the last slot of the range.
+     * @return The {@link SlotPattern}.
+     * @since 1.1.0
+     */
+    static SlotPattern range(int from, int to) {
+        return size -> {
+            BitSet selected = new BitSet(size);
+            if (from < Math.min(to, size)) selected.set(from, Math.min(to, size));
+            return selected;
+        };
+    }
+
+    /**
+     * Creates a {@link SlotPattern} which selects all slots.
+     *
+     * @return The {@link SlotPattern}.
+     * @since 1.1.0
+     */
+    static SlotPattern all() {
+        return range(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a {@link SlotPattern} which selects a row. Negative rows are counted from the last row,
+     * so -1 selects the last row.
+     *
+     * @param row The index of the row.
+     * @return The {@link SlotPattern}.
+     * @since 1.1.0
+     */
+    static SlotPattern row(int row) {
+        return size -> {
+            int index = row < 0 ? size / 9 + row : row;
+            BitSet selected = new BitSet(size);
+            if (index >= 0 && index < size / 9) selected.set(index * 9, index * 9 + 9);
+            return selected;
+        };
+    }
+
+    /**
+     * Creates a {@link SlotPattern} which selects a column. Negative columns are counted from the last column,
+     * so -1 selects the last column.
+     *
+     * @param column The index of the column.
+     * @return The {@link SlotPattern}.
+     * @since 1.1.0
+     */
+    static SlotPattern column(int column) {
+        return size -> {
+            int index = column < 0 ? 9 + column : column;
+            BitSet selected = new BitSet(size);
+            if (index < 0 || index >= 9) return selected;
+            for (int slot = index; slot < size; slot += 9) {
+                selected.set(slot);
+            }
+            return selected;
+        };
+    }
+
+    /**
+     * Creates a {@link SlotPattern} which selects the first and the last row and the first and the last column.
+     *
+     * @return The {@link SlotPattern}.
+     * @since 1.1.0
+     */
+    static SlotPattern border() {
+        return row(0).or(row(-1)).or(column(0)).or(column(-1));
+    }
+
+    /**
+     * Creates a {@link SlotPattern} which selects the slots of this and the other {@link SlotPattern}.
+     *
+     * @param other The other {@link SlotPattern}.
+     * @return The combined {@link SlotPattern}.
+     * @since 1.1.0
+     */
+    default SlotPattern or(SlotPattern other) {
+        return size -> {
+            BitSet selected = slots(size);
+            selected.or(other.slots(size));
+            return selected;
+        };
+    }
+
+    /**
+     * Creates a {@link SlotPattern} which selects the slots of this {@link SlotPattern} that are not selected by the other one.
+     *
+     * @param other The other {@link SlotPattern}.
+     * @return The combined {@link SlotPattern}.
+     * @since 1.1.0
+     */
+    default SlotPattern without(SlotPattern other) {
+        return size -> {
+            BitSet selected = slots(size);
+            selected.andNot(other.slots(size));
+            return selected;
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+/**
+ * This interface is used to render a {@link CustomItem} for a single slot of an {@link InventoryManager}.
+ * The returned {@link CustomItem} is placed in the slot the renderer is registered for, its own slot is ignored.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see MenuTemplate
+ * @see InventoryManager
+ */
+@FunctionalInterface
+public interface SlotRenderer {
+
+    /**
+     * Renders the {@link CustomItem} for the given {@link InventoryManager}.
+     *
+     * @param inventoryManager The {@link InventoryManager} the item is rendered for.
+     * @return The rendered {@link CustomItem} or null if the slot should stay empty.
+     * @since 1.1.0
+     */
+    CustomItem render(InventoryManager inventoryManager);
+}
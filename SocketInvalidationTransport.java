@@ -0,0 +1,310 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * This class is used to deliver invalidated keys to other servers over TCP.
+ * Every server listens on its own address and sends each batch to all configured peers.
+ * The batches are sent on a background thread, so {@link #send(Collection)} never waits for the network.
+ * Keys that are sent while the previous batch is still on its way are merged into one batch.
+ * If a peer can't be reached, it is marked down and its batches are dropped until its backoff has expired.
+ * The backoff starts at 1 second and doubles with every failed attempt up to 30 seconds.
+ * <br>
+ * Only the configured peers may connect and every connection has to prove that it knows the shared secret:
+ * the accepting server sends a random nonce and the connecting server answers with the HMAC-SHA256 of the nonce.
+ * A connection that does not answer correctly within 5 seconds is closed.
+ * The number of accepted connections is limited, further connections are closed immediately.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see InvalidationTransport
+ */
+public class SocketInvalidationTransport implements InvalidationTransport {
+
+    private static final int MAX_BATCH_SIZE = 4096;
+    private static final int NONCE_LENGTH = 32;
+    private static final int HANDSHAKE_TIMEOUT_MILLIS = 5000;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final long INITIAL_BACKOFF_MILLIS = 1000;
+    private static final long MAX_BACKOFF_MILLIS = 30000;
+
+    private final ServerSocket serverSocket;
+    private final List<InetSocketAddress> peers;
+    private final Set<InetAddress> allowedAddresses;
+    private final SecretKeySpec secret;
+    private final SecureRandom random;
+    private final ExecutorService sender;
+    private final ThreadPoolExecutor readers;
+    private final Map<InetSocketAddress, Socket> connections;
+    private final Set<Socket> acceptedSockets;
+    private final Set<String> pendingKeys;
+    private final Map<InetSocketAddress, Integer> failures;
+    private final Map<InetSocketAddress, Long> downUntil;
+    private boolean flushScheduled;
+    private volatile Consumer<Collection<String>> receiver;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new {@link SocketInvalidationTransport} and starts listening on the given address.
+     * Every peer may hold two connections, so a peer can reconnect before its old connection timed out.
+     *
+     * @param bindAddress The address this server listens on.
+     * @param peers       The addresses of the other servers. Only these hosts may connect.
+     * @param secret      The secret that is shared by all servers.
+     * @throws IOException              if the address can't be bound.
+     * @throws IllegalArgumentException if the secret is empty.
+     * @since 1.1.0
+     */
+    public SocketInvalidationTransport(InetSocketAddress bindAddress, List<InetSocketAddress> peers, byte[] secret) throws IOException {
+        this(bindAddress, peers, secret, Math.max(1, peers.size() * 2));
+    }
+
+    /**
+     * Creates a new {@link SocketInvalidationTransport} and starts listening on the given address.
+     *
+     * @param bindAddress    The address this server listens on.
+     * @param peers          The addresses of the other servers. Only these hosts may connect.
+     * @param secret         The secret that is shared by all servers.
+     * @param maxConnections The maximum number of accepted connections that are read at the same time.
+     * @throws IOException              if the address can't be bound.
+     * @throws IllegalArgumentException if the secret is empty or maxConnections is smaller than 1.
+     * @since 1.1.0
+     */
+    public SocketInvalidationTransport(InetSocketAddress bindAddress, List<InetSocketAddress> peers, byte[] secret,
+                                       int maxConnections) throws IOException {
+        if (secret == null || secret.length == 0) throw new IllegalArgumentException("secret cannot be empty");
+        if (maxConnections < 1) throw new IllegalArgumentException("maxConnections must be at least 1");
+        this.peers = new ArrayList<>(peers);
+        this.allowedAddresses = new HashSet<>();
+        for (InetSocketAddress peer : this.peers) {
+            if (peer.getAddress() == null) throw new IOException("Could not resolve peer " + peer.getHostString());
+            allowedAddresses.add(peer.getAddress());
+        }
+        this.secret = new SecretKeySpec(secret.clone(), HMAC_ALGORITHM);
+        this.random = new SecureRandom();
+        this.serverSocket = new ServerSocket();
+        serverSocket.bind(bindAddress);
+        this.sender = Executors.newSingleThreadExecutor(InventoryApiRegister.threadFactory("InventoryManager-InvalidationSender-"));
+        this.readers = new ThreadPoolExecutor(0, maxConnections, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                InventoryApiRegister.threadFactory("InventoryManager-InvalidationReader-"));
+        this.connections = new HashMap<>();
+        this.acceptedSockets = Collections.synchronizedSet(new HashSet<>());
+        this.pendingKeys = new LinkedHashSet<>();
+        this.failures = new HashMap<>();
+        this.downUntil = new HashMap<>();
+        InventoryApiRegister.threadFactory("InventoryManager-InvalidationListener-").newThread(this::accept).start();
+    }
+
+    @Override
+    public void send(Collection<String> keys) {
+        if (closed) return;
+        deliver(keys);
+        synchronized (pendingKeys) {
+            pendingKeys.addAll(keys);
+            if (flushScheduled) return;
+            flushScheduled = true;
+        }
+        try {
+            sender.execute(this::flush);
+        } catch (RejectedExecutionException exception) {
+            // The transport was closed in the meantime.
+        }
+    }
+
+    /**
+     * Sends all pending keys to the peers. Peers that are marked down are skipped and miss this batch.
+     * Runs on the sender thread.
+     */
+    private void flush() {
+        List<String> batch;
+        synchronized (pendingKeys) {
+            batch = new ArrayList<>(pendingKeys);
+            pendingKeys.clear();
+            flushScheduled = false;
+        }
+        for (InetSocketAddress peer : peers) {
+            Long retryAt = downUntil.get(peer);
+            if (retryAt != null && System.nanoTime() - retryAt < 0) continue;
+            try {
+                Socket socket = connections.get(peer);
+                if (socket == null) {
+                    socket = connect(peer);
+                    connections.put(peer, socket);
+                }
+                DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                for (int start = 0; start < batch.size(); start += MAX_BATCH_SIZE) {
+                    List<String> chunk = batch.subList(start, Math.min(batch.size(), start + MAX_BATCH_SIZE));
+                    output.writeInt(chunk.size());
+                    for (String key : chunk) {
+                        output.writeUTF(key);
+                    }
+                }
+                output.flush();
+                failures.remove(peer);
+                downUntil.remove(peer);
+            } catch (IOException exception) {
+                closeQuietly(connections.remove(peer));
+                int count = failures.merge(peer, 1, Integer::sum);
+                long backoff = Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << Math.min(count - 1, 16));
+                downUntil.put(peer, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoff));
+            }
+        }
+    }
+
+    @Override
+    public void setReceiver(Consumer<Collection<String>> receiver) {
+        this.receiver = receiver;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly(serverSocket);
+        sender.execute(() -> {
+            for (Socket socket : connections.values()) {
+                closeQuietly(socket);
+            }
+            connections.clear();
+        });
+        sender.shutdown();
+        readers.shutdown();
+        synchronized (acceptedSockets) {
+            for (Socket socket : acceptedSockets) {
+                closeQuietly(socket);
+            }
+        }
+    }
+
+    private void accept() {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException exception) {
+                if (!closed) InventoryApiRegister.getPlugin().getLogger().warning("Could not accept invalidation connection: " + exception.getMessage());
+                continue;
+            }
+            if (!allowedAddresses.contains(socket.getInetAddress())) {
+                InventoryApiRegister.getPlugin().getLogger().warning("Refused invalidation connection from " + socket.getInetAddress());
+                closeQuietly(socket);
+                continue;
+            }
+            acceptedSockets.add(socket);
+            try {
+                readers.execute(() -> read(socket));
+            } catch (RejectedExecutionException exception) {
+                InventoryApiRegister.getPlugin().getLogger().warning("Refused invalidation connection from " + socket.getInetAddress()
+                        + ", " + readers.getMaximumPoolSize() + " connections are open");
+                acceptedSockets.remove(socket);
+                closeQuietly(socket);
+            }
+        }
+    }
+
+    private void read(Socket socket) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            if (!verify(socket, input)) return;
+            while (!closed) {
+                int size = input.readInt();
+                if (size < 0 || size > MAX_BATCH_SIZE) break;
+                List<String> keys = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    keys.add(input.readUTF());
+                }
+                deliver(keys);
+            }
+        } catch (IOException ignored) {
+        } finally {
+            acceptedSockets.remove(socket);
+            closeQuietly(socket);
+        }
+    }
+
+    private boolean verify(Socket socket, DataInputStream input) throws IOException {
+        byte[] nonce = new byte[NONCE_LENGTH];
+        random.nextBytes(nonce);
+        socket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+        DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+        output.write(nonce);
+        output.flush();
+        Mac mac = mac();
+        byte[] answer = new byte[mac.getMacLength()];
+        input.readFully(answer);
+        if (!MessageDigest.isEqual(answer, mac.doFinal(nonce))) {
+            InventoryApiRegister.getPlugin().getLogger().warning("Refused invalidation connection from " + socket.getInetAddress()
+                    + ", the secret does not match");
+            return false;
+        }
+        socket.setSoTimeout(0);
+        return true;
+    }
+
+    private Socket connect(InetSocketAddress peer) throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(peer, 1000);
+            socket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+            byte[] nonce = new byte[NONCE_LENGTH];
+            new DataInputStream(socket.getInputStream()).readFully(nonce);
+            socket.getOutputStream().write(mac().doFinal(nonce));
+            socket.setSoTimeout(0);
+            return socket;
+        } catch (IOException exception) {
+            closeQuietly(socket);
+            throw exception;
+        }
+    }
+
+    private Mac mac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secret);
+            return mac;
+        } catch (GeneralSecurityException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private void deliver(Collection<String> keys) {
+        Consumer<Collection<String>> receiver = this.receiver;
+        if (receiver != null) receiver.accept(keys);
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) return;
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * This class is an icon whose name and lore contain placeholders.
+ * The name and each lore line are compiled once into {@link TextTemplate}s.
+ * Lines without placeholders are rendered only once and reused for every render.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see TextTemplate
+ * @see InventoryManager#setTemplatedItem(int, TemplatedIcon, ClickHandler)
+ */
+public final class TemplatedIcon {
+
+    private final Material material;
+    private final TextTemplate name;
+    private final TextTemplate[] lore;
+    private final String[] staticLore;
+    private final Set<String> placeholders;
+
+    /**
+     * Creates a new {@link TemplatedIcon}.
+     *
+     * @param material The material of the icon.
+     * @param name     The name of the icon with placeholders or null for no name.
+     * @param lore     The lore lines of the icon with placeholders.
+     * @since 1.1.0
+     */
+    public TemplatedIcon(Material material, String name, String... lore) {
+        if (material == null) throw new IllegalArgumentException("material cannot be null");
+        this.material = material;
+        this.name = name == null ? null : TextTemplate.compile(name);
+        this.lore = new TextTemplate[lore.length];
+        this.staticLore = new String[lore.length];
+        Set<String> placeholders = new LinkedHashSet<>();
+        if (this.name != null) placeholders.addAll(this.name.getPlaceholders());
+        for (int i = 0; i < lore.length; i++) {
+            this.lore[i] = TextTemplate.compile(lore[i]);
+            if (this.lore[i].isStatic()) this.staticLore[i] = this.lore[i].render(key -> null);
+            placeholders.addAll(this.lore[i].getPlaceholders());
+        }
+        this.placeholders = Collections.unmodifiableSet(placeholders);
+    }
+
+    /**
+     * Renders the icon with the given values.
+     *
+     * @param values The function that returns the value of a placeholder or null if it has no value.
+     * @return The rendered {@link ItemStack}.
+     * @since 1.1.0
+     */
+    public ItemStack render(Function<String, String> values) {
+        ItemStack itemStack = new ItemStack(material);
+        ItemMeta itemMeta = itemStack.getItemMeta();
+        if (itemMeta == null) return itemStack;
+        if (name != null) itemMeta.setDisplayName(name.render(values));
+        if (lore.length > 0) {
+            List<String> lines = new ArrayList<>(lore.length);
+            for (int i = 0; i < lore.length; i++) {
+                lines.add(staticLore[i] != null ? staticLore[i] : lore[i].render(values));
+            }
+            itemMeta.setLore(lines);
+        }
+        itemStack.setItemMeta(itemMeta);
+        return itemStack;
+    }
+
+    /**
+     * Returns the keys of all placeholders of the name and the lore.
+     *
+     * @return The keys of all placeholders.
+     * @since 1.1.0
+     */
+    public Set<String> getPlaceholders() {
+        return placeholders;
+    }
+}
@@ -0,0 +1,139 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * This class is a text with placeholders like {@code {clan}}, {@code {balance}} or {@code {online}} that is parsed only once.
+ * The text is compiled into literal segments and placeholder keys. The colour codes of the literal segments
+ * are translated during the compilation, so rendering only appends the literals and the values.
+ * A placeholder without a value is rendered as it was written.
+ * <br>
+ * <b> NOTE: Bukkit can't change the title of an open inventory, so titles are rendered once before the inventory is created. </b>
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see TemplatedIcon
+ * @see PlaceholderResolver
+ */
+public final class TextTemplate {
+
+    private final String source;
+    private final String[] literals;
+    private final String[] keys;
+    private final int literalLength;
+    private final Set<String> placeholders;
+
+    private TextTemplate(String source, String[] literals, String[] keys) {
+        this.source = source;
+        this.literals = literals;
+        this.keys = keys;
+        int literalLength = 0;
+        for (String literal : literals) {
+            literalLength += literal.length();
+        }
+        this.literalLength = literalLength;
+        Set<String> placeholders = new LinkedHashSet<>();
+        Collections.addAll(placeholders, keys);
+        this.placeholders = Collections.unmodifiableSet(placeholders);
+    }
+
+    /**
+     * Compiles the given text. Colour codes with {@code &} are translated.
+     *
+     * @param text The text which should be compiled.
+     * @return The compiled {@link TextTemplate}.
+     * @throws IllegalArgumentException if text is null.
+     * @since 1.1.0
+     */
+    public static TextTemplate compile(String text) {
+        if (text == null) throw new IllegalArgumentException("text cannot be null");
+        List<String> literals = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int index = 0;
+        while (index < text.length()) {
+            char character = text.charAt(index);
+            int end = character == '{' ? text.indexOf('}', index + 1) : -1;
+            if (end > index + 1 && isKey(text, index + 1, end)) {
+                literals.add(ChatColor.translateAlternateColorCodes('&', literal.toString()));
+                keys.add(text.substring(index + 1, end));
+                literal.setLength(0);
+                index = end + 1;
+            } else {
+                literal.append(character);
+                index++;
+            }
+        }
+        literals.add(ChatColor.translateAlternateColorCodes('&', literal.toString()));
+        return new TextTemplate(text, literals.toArray(new String[0]), keys.toArray(new String[0]));
+    }
+
+    /**
+     * Renders the text with the given values.
+     *
+     * @param values The function that returns the value of a placeholder or null if it has no value.
+     * @return The rendered text.
+     * @since 1.1.0
+     */
+    public String render(Function<String, String> values) {
+        if (keys.length == 0) return literals[0];
+        String[] resolved = new String[keys.length];
+        int length = literalLength;
+        for (int i = 0; i < keys.length; i++) {
+            String value = values.apply(keys[i]);
+            resolved[i] = value != null ? value : "{" + keys[i] + "}";
+            length += resolved[i].length();
+        }
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < keys.length; i++) {
+            builder.append(literals[i]).append(resolved[i]);
+        }
+        return builder.append(literals[keys.length]).toString();
+    }
+
+    /**
+     * Returns the keys of all placeholders of the text.
+     *
+     * @return The keys of all placeholders.
+     * @since 1.1.0
+     */
+    public Set<String> getPlaceholders() {
+        return placeholders;
+    }
+
+    /**
+     * Returns if the text has no placeholders.
+     *
+     * @return If the text has no placeholders.
+     * @since 1.1.0
+     */
+    public boolean isStatic() {
+        return keys.length == 0;
+    }
+
+    /**
+     * Returns the text this template was compiled from.
+     *
+     * @return The source text.
+     * @since 1.1.0
+     */
+    public String getSource() {
+        return source;
+    }
+
+    private static boolean isKey(String text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char character = text.charAt(i);
+            if (!Character.isLetterOrDigit(character) && character != '_' && character != '-' && character != '.' && character != ':')
+                return false;
+        }
+        return true;
+    }
+}
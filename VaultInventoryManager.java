@@ -0,0 +1,178 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryInteractEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * This class is used to create a shared inventory whose contents are stored, for example the vault of a clan.
+ * The contents are loaded from the {@link VaultStore} when the vault is opened the first time. Until then, all clicks are cancelled.
+ * When a viewer changes the contents, only the changed slots are handed to the {@link VaultStore},
+ * which writes them on a background thread. The remaining changes are handed over when the last viewer leaves.
+ * <br>
+ * Vaults should be opened with {@link #open(Player, String, int, String)}, so all players of a vault share the same inventory.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see VaultStore
+ * @see SharedInventoryManager
+ */
+public class VaultInventoryManager extends SharedInventoryManager {
+
+    private static final String KEY_PREFIX = "vault:";
+
+    private final VaultStore store;
+    private final String vaultId;
+    private ItemStack[] stored;
+    private boolean loading;
+    private boolean loaded;
+    private boolean captureQueued;
+
+    /**
+     * Creates a new vault which is stored in the {@link VaultStore} of the {@link InventoryApiRegister}.
+     *
+     * @param vaultId The id of the vault in the {@link VaultStore}.
+     * @param size    The size of the inventory.
+     * @param name    The name of the inventory.
+     * @since 1.1.0
+     */
+    public VaultInventoryManager(String vaultId, int size, String name) {
+        this(InventoryApiRegister.getVaultStore(), vaultId, size, name);
+    }
+
+    /**
+     * Creates a new vault which is stored in the given {@link VaultStore}.
+     *
+     * @param store   The {@link VaultStore} of the vault.
+     * @param vaultId The id of the vault in the {@link VaultStore}.
+     * @param size    The size of the inventory.
+     * @param name    The name of the inventory.
+     * @since 1.1.0
+     */
+    public VaultInventoryManager(VaultStore store, String vaultId, int size, String name) {
+        super(size, name, true);
+        this.store = store;
+        this.vaultId = vaultId;
+    }
+
+    /**
+     * Opens the vault with the given id for the player. If the vault is already open for other players,
+     * the player joins them.
+     *
+     * @param player  The player who should see the vault.
+     * @param vaultId The id of the vault in the {@link VaultStore}.
+     * @param size    The size of the inventory.
+     * @param name    The name of the inventory.
+     * @return The opened {@link VaultInventoryManager}.
+     * @since 1.1.0
+     */
+    public static VaultInventoryManager open(Player player, String vaultId, int size, String name) {
+        VaultInventoryManager vault = (VaultInventoryManager) InventoryApiRegister.getSharedInventoryCache()
+                .getOrCreate(KEY_PREFIX + vaultId, () -> new VaultInventoryManager(vaultId, size, name));
+        vault.open(player);
+        return vault;
+    }
+
+    /**
+     * Opens the vault for the given player and starts loading its contents if they are not loaded yet.
+     *
+     * @param player The player who should see the vault.
+     * @since 1.1.0
+     */
+    @Override
+    public void open(Player player) {
+        super.open(player);
+        if (!loaded && !loading) {
+            loading = true;
+            store.load(vaultId, getSize()).whenComplete((contents, throwable) ->
+                    InventoryApiRegister.getScheduler().schedule(this, () -> apply(contents, throwable)));
+        }
+    }
+
+    /**
+     * Checks the contents for changes on one of the next ticks.
+     * It is called by the listeners of this API when a viewer clicks or drags items.
+     * Call it yourself after you changed the {@link Inventory} directly.
+     *
+     * @since 1.1.0
+     */
+    public void markChanged() {
+        if (!loaded || captureQueued || isTornDown()) return;
+        captureQueued = true;
+        InventoryApiRegister.getScheduler().schedule(this, this::captureChanges);
+    }
+
+    /**
+     * Returns the id of the vault in the {@link VaultStore}.
+     *
+     * @return The id of the vault.
+     * @since 1.1.0
+     */
+    public String getVaultId() {
+        return vaultId;
+    }
+
+    /**
+     * Returns if the contents of the vault are loaded.
+     *
+     * @return If the contents are loaded.
+     * @since 1.1.0
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Cancels the click or drag while the contents are loading, otherwise the contents are checked for changes.
+     *
+     * @param event The event of the click or drag.
+     */
+    @Override
+    void onContentsClicked(InventoryInteractEvent event) {
+        if (canceled) {
+            event.setCancelled(true);
+        } else {
+            markChanged();
+        }
+    }
+
+    @Override
+    void tearDown() {
+        if (loaded) captureChanges();
+        super.tearDown();
+        store.release(vaultId);
+    }
+
+    private void apply(ItemStack[] contents, Throwable throwable) {
+        loading = false;
+        if (throwable != null) {
+            InventoryApiRegister.getPlugin().getLogger().log(Level.WARNING, "Could not load vault " + vaultId, throwable);
+            return;
+        }
+        writeContents(contents);
+        stored = new ItemStack[getSize()];
+        for (int slot = 0; slot < stored.length; slot++) {
+            stored[slot] = contents[slot] == null ? null : contents[slot].clone();
+        }
+        loaded = true;
+        canceled = false;
+    }
+
+    private void captureChanges() {
+        captureQueued = false;
+        ItemStack[] contents = getInventory().getContents();
+        Map<Integer, ItemStack> changes = new HashMap<>();
+        for (int slot = 0; slot < stored.length; slot++) {
+            ItemStack itemStack = contents[slot];
+            if (itemStack == null ? stored[slot] == null : itemStack.equals(stored[slot])) continue;
+            stored[slot] = itemStack == null ? null : itemStack.clone();
+            changes.put(slot, stored[slot] == null ? null : stored[slot].clone());
+        }
+        store.write(vaultId, changes);
+    }
+}
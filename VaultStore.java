@@ -0,0 +1,648 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import org.bukkit.configuration.serialization.ConfigurationSerializable;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.io.BukkitObjectInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+/**
+ * This class is used to store the contents of {@link VaultInventoryManager}s in local files.
+ * Each vault has its own append-only file. Changed slots are collected by {@link #write(String, Map)}, coalesced
+ * and written as one record per vault on a background thread, so the main thread never waits for the disk.
+ * A record only contains the changed slots, so the size of the file grows with the changes and not with the size of the vault.
+ * If the file contains many more records than slots, it is compacted into a single record.
+ * <br>
+ * Every record starts with a marker and is protected by a checksum. A record that was only written partially or was damaged
+ * is skipped when the file is read again, the reader continues with the next marker and the file is compacted afterwards.
+ * A record that could not be written completely is cut off again before the changes are retried.
+ * <br>
+ * The {@link ItemStack}s are stored as a compact binary form of {@link ItemStack#serialize()}.
+ * Files of the first version, which used Java serialization, are converted when they are read.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see VaultInventoryManager
+ * @see InventoryApiRegister#getVaultStore()
+ */
+public class VaultStore {
+
+    private static final int LEGACY_MAGIC = 0x564C5401;
+    private static final int MAGIC = 0x564C5402;
+    private static final int RECORD_MAGIC = 0x56524543;
+    private static final int RECORD_OVERHEAD = 12;
+    private static final int MAX_RECORD_LENGTH = 64 * 1024 * 1024;
+    private static final int COMPACTION_FACTOR = 4;
+    private static final int COMPACTION_MIN_ENTRIES = 256;
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_INTEGER = 2;
+    private static final byte TAG_LONG = 3;
+    private static final byte TAG_DOUBLE = 4;
+    private static final byte TAG_FLOAT = 5;
+    private static final byte TAG_BOOLEAN = 6;
+    private static final byte TAG_LIST = 7;
+    private static final byte TAG_MAP = 8;
+    private static final byte TAG_SERIALIZABLE = 9;
+    private static final byte TAG_SHORT = 10;
+    private static final byte TAG_BYTE = 11;
+
+    private final File directory;
+    private final ScheduledExecutorService writer;
+    private final Map<String, Map<Integer, ItemStack>> pending;
+    private final Map<String, VaultFile> files;
+    private final LongAdder writtenRecords;
+    private final LongAdder writtenBytes;
+    private final LongAdder coalescedChanges;
+    private final LongAdder compactions;
+
+    /**
+     * Creates a new {@link VaultStore}.
+     *
+     * @param directory       The directory of the vault files. It is created when the first vault is written.
+     * @param flushIntervalMs The interval in milliseconds in which the collected changes are written.
+     * @since 1.1.0
+     */
+    public VaultStore(File directory, long flushIntervalMs) {
+        this.directory = directory;
+        this.writer = Executors.newSingleThreadScheduledExecutor(
+                InventoryApiRegister.threadFactory("InventoryManager-Vault-"));
+        this.pending = new HashMap<>();
+        this.files = new HashMap<>();
+        this.writtenRecords = new LongAdder();
+        this.writtenBytes = new LongAdder();
+        this.coalescedChanges = new LongAdder();
+        this.compactions = new LongAdder();
+        writer.scheduleWithFixedDelay(this::flushAll, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Loads the contents of a vault on the background thread.
+     * Changes that were not written yet are written before the vault is read, so the contents are always up to date.
+     *
+     * @param vaultId The id of the vault.
+     * @param size    The size of the vault. Slots outside the vault are ignored.
+     * @return A {@link CompletableFuture} which is completed with the contents of the vault.
+     * @since 1.1.0
+     */
+    public CompletableFuture<ItemStack[]> load(String vaultId, int size) {
+        CompletableFuture<ItemStack[]> future = new CompletableFuture<>();
+        writer.execute(() -> {
+            try {
+                flush(vaultId);
+                VaultFile vaultFile = open(vaultId);
+                ItemStack[] contents = new ItemStack[size];
+                for (int slot = 0; slot < size && slot < vaultFile.slots.length; slot++) {
+                    if (vaultFile.slots[slot] != null) contents[slot] = decode(vaultFile.slots[slot]);
+                }
+                future.complete(contents);
+            } catch (IOException | RuntimeException exception) {
+                future.completeExceptionally(exception);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Queues changed slots of a vault. A slot that is changed again before it was written is only written once.
+     * The {@link ItemStack}s must not be changed afterwards.
+     *
+     * @param vaultId The id of the vault.
+     * @param changes The changed slots with their new {@link ItemStack} or null if the slot was cleared.
+     * @since 1.1.0
+     */
+    public void write(String vaultId, Map<Integer, ItemStack> changes) {
+        if (changes.isEmpty()) return;
+        synchronized (pending) {
+            Map<Integer, ItemStack> vaultChanges = pending.computeIfAbsent(vaultId, key -> new HashMap<>());
+            for (Map.Entry<Integer, ItemStack> entry : changes.entrySet()) {
+                if (vaultChanges.containsKey(entry.getKey())) coalescedChanges.increment();
+                vaultChanges.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Writes the queued changes of a vault and removes the vault from the memory of this {@link VaultStore}.
+     * The vault is read again from its file when it is loaded the next time.
+     *
+     * @param vaultId The id of the vault.
+     * @since 1.1.0
+     */
+    public void release(String vaultId) {
+        writer.execute(() -> {
+            flush(vaultId);
+            files.remove(vaultId);
+        });
+    }
+
+    /**
+     * Writes all queued changes and stops the background thread.
+     * This method blocks until the changes are written, so no change is lost when the server stops.
+     *
+     * @since 1.1.0
+     */
+    public void shutdown() {
+        writer.execute(this::flushAll);
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                InventoryApiRegister.getPlugin().getLogger().warning("Vault changes could not be written within 30 seconds");
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the number of slots that are queued and not written yet.
+     *
+     * @return The number of queued slots.
+     * @since 1.1.0
+     */
+    public int getPendingSlotCount() {
+        synchronized (pending) {
+            int count = 0;
+            for (Map<Integer, ItemStack> vaultChanges : pending.values()) {
+                count += vaultChanges.size();
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Returns the number of records that were written.
+     *
+     * @return The number of written records.
+     * @since 1.1.0
+     */
+    public long getWrittenRecords() {
+        return writtenRecords.sum();
+    }
+
+    /**
+     * Returns the number of bytes that were appended to the vault files.
+     *
+     * @return The number of written bytes.
+     * @since 1.1.0
+     */
+    public long getWrittenBytes() {
+        return writtenBytes.sum();
+    }
+
+    /**
+     * Returns the number of changes that replaced a queued change of the same slot.
+     *
+     * @return The number of coalesced changes.
+     * @since 1.1.0
+     */
+    public long getCoalescedChanges() {
+        return coalescedChanges.sum();
+    }
+
+    /**
+     * Returns the number of compactions of vault files.
+     *
+     * @return The number of compactions.
+     * @since 1.1.0
+     */
+    public long getCompactions() {
+        return compactions.sum();
+    }
+
+    private void flushAll() {
+        Map<String, Map<Integer, ItemStack>> changes;
+        synchronized (pending) {
+            if (pending.isEmpty()) return;
+            changes = new HashMap<>(pending);
+            pending.clear();
+        }
+        for (Map.Entry<String, Map<Integer, ItemStack>> entry : changes.entrySet()) {
+            append(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void flush(String vaultId) {
+        Map<Integer, ItemStack> changes;
+        synchronized (pending) {
+            changes = pending.remove(vaultId);
+        }
+        if (changes != null) append(vaultId, changes);
+    }
+
+    private void append(String vaultId, Map<Integer, ItemStack> changes) {
+        try {
+            VaultFile vaultFile = open(vaultId);
+            Map<Integer, byte[]> entries = new HashMap<>();
+            for (Map.Entry<Integer, ItemStack> entry : changes.entrySet()) {
+                entries.put(entry.getKey(), entry.getValue() == null ? null : encode(entry.getValue()));
+            }
+            byte[] record = record(entries);
+            try (FileChannel channel = FileChannel.open(vaultFile.file.toPath(), StandardOpenOption.WRITE)) {
+                long position = channel.size();
+                try {
+                    write(channel, position, record);
+                    channel.force(false);
+                } catch (IOException exception) {
+                    try {
+                        channel.truncate(position);
+                    } catch (IOException truncateException) {
+                        exception.addSuppressed(truncateException);
+                    }
+                    throw exception;
+                }
+            }
+            writtenRecords.increment();
+            writtenBytes.add(record.length);
+            for (Map.Entry<Integer, byte[]> entry : entries.entrySet()) {
+                vaultFile.set(entry.getKey(), entry.getValue());
+            }
+            vaultFile.entries += entries.size();
+            if (vaultFile.entries > COMPACTION_MIN_ENTRIES && vaultFile.entries > COMPACTION_FACTOR * vaultFile.liveSlots()) {
+                compact(vaultFile);
+            }
+        } catch (IOException | RuntimeException exception) {
+            InventoryApiRegister.getPlugin().getLogger().log(Level.WARNING, "Could not write vault " + vaultId, exception);
+            synchronized (pending) {
+                Map<Integer, ItemStack> vaultChanges = pending.computeIfAbsent(vaultId, key -> new HashMap<>());
+                for (Map.Entry<Integer, ItemStack> entry : changes.entrySet()) {
+                    vaultChanges.putIfAbsent(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    private void compact(VaultFile vaultFile) throws IOException {
+        Map<Integer, byte[]> entries = new HashMap<>();
+        for (int slot = 0; slot < vaultFile.slots.length; slot++) {
+            if (vaultFile.slots[slot] != null) entries.put(slot, vaultFile.slots[slot]);
+        }
+        File temporary = new File(directory, vaultFile.file.getName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            write(channel, 0, header());
+            write(channel, 4, record(entries));
+            channel.force(true);
+        }
+        Files.move(temporary.toPath(), vaultFile.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        vaultFile.entries = entries.size();
+        compactions.increment();
+    }
+
+    private VaultFile open(String vaultId) throws IOException {
+        VaultFile vaultFile = files.get(vaultId);
+        if (vaultFile != null) return vaultFile;
+        if (!directory.isDirectory() && !directory.mkdirs()) throw new IOException("Could not create " + directory);
+        vaultFile = new VaultFile(new File(directory, fileName(vaultId)));
+        if (vaultFile.file.isFile()) {
+            read(vaultFile);
+        } else {
+            try (FileChannel channel = FileChannel.open(vaultFile.file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                write(channel, 0, header());
+                channel.force(true);
+            }
+            syncDirectory();
+        }
+        files.put(vaultId, vaultFile);
+        return vaultFile;
+    }
+
+    private void read(VaultFile vaultFile) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(vaultFile.file.toPath()));
+        int magic = buffer.remaining() >= 4 ? buffer.getInt() : 0;
+        if (magic == LEGACY_MAGIC) {
+            readLegacy(vaultFile, buffer);
+            compact(vaultFile);
+            InventoryApiRegister.getPlugin().getLogger().info("Converted " + vaultFile.file + " to the current vault format");
+            return;
+        }
+        if (magic != MAGIC) throw new IOException(vaultFile.file + " is not a vault file");
+        int skipped = 0;
+        while (buffer.remaining() >= RECORD_OVERHEAD) {
+            int start = buffer.position();
+            Map<Integer, byte[]> entries = readRecord(buffer);
+            if (entries == null) {
+                buffer.position(start + 1);
+                skipped++;
+                continue;
+            }
+            for (Map.Entry<Integer, byte[]> entry : entries.entrySet()) {
+                vaultFile.set(entry.getKey(), entry.getValue());
+            }
+            vaultFile.entries += entries.size();
+        }
+        skipped += buffer.remaining();
+        if (skipped > 0) {
+            InventoryApiRegister.getPlugin().getLogger().warning("Skipped " + skipped + " damaged bytes of " + vaultFile.file);
+            compact(vaultFile);
+        }
+    }
+
+    private static Map<Integer, byte[]> readRecord(ByteBuffer buffer) {
+        try {
+            if (buffer.getInt() != RECORD_MAGIC) return null;
+            int length = buffer.getInt();
+            if (length < 2 || length > MAX_RECORD_LENGTH || length > buffer.remaining() - 4) return null;
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            if (buffer.getInt() != checksum(payload)) return null;
+            return entries(ByteBuffer.wrap(payload));
+        } catch (BufferUnderflowException exception) {
+            return null;
+        }
+    }
+
+    private static Map<Integer, byte[]> entries(ByteBuffer payload) {
+        int count = payload.getShort() & 0xFFFF;
+        Map<Integer, byte[]> entries = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            int slot = payload.getShort() & 0xFFFF;
+            int entryLength = payload.getInt();
+            if (entryLength < -1 || entryLength > payload.remaining()) return null;
+            byte[] itemStack = null;
+            if (entryLength >= 0) {
+                itemStack = new byte[entryLength];
+                payload.get(itemStack);
+            }
+            entries.put(slot, itemStack);
+        }
+        return payload.hasRemaining() ? null : entries;
+    }
+
+    private static void readLegacy(VaultFile vaultFile, ByteBuffer buffer) throws IOException {
+        while (buffer.remaining() >= 8) {
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining() - 4) break;
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            if (buffer.getInt() != checksum(payload)) break;
+            Map<Integer, byte[]> entries;
+            try {
+                entries = entries(ByteBuffer.wrap(payload));
+            } catch (BufferUnderflowException exception) {
+                break;
+            }
+            if (entries == null) break;
+            for (Map.Entry<Integer, byte[]> entry : entries.entrySet()) {
+                vaultFile.set(entry.getKey(), entry.getValue() == null ? null : encode(decodeLegacy(entry.getValue())));
+            }
+            vaultFile.entries += entries.size();
+        }
+    }
+
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+            // Some platforms cannot open or sync a directory. The rename is still atomic there.
+        }
+    }
+
+    private static void write(FileChannel channel, long position, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    private static byte[] header() {
+        return ByteBuffer.allocate(4).putInt(MAGIC).array();
+    }
+
+    private static byte[] record(Map<Integer, byte[]> entries) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(payload);
+        output.writeShort(entries.size());
+        for (Map.Entry<Integer, byte[]> entry : entries.entrySet()) {
+            output.writeShort(entry.getKey());
+            if (entry.getValue() == null) {
+                output.writeInt(-1);
+            } else {
+                output.writeInt(entry.getValue().length);
+                output.write(entry.getValue());
+            }
+        }
+        byte[] bytes = payload.toByteArray();
+        return ByteBuffer.allocate(RECORD_OVERHEAD + bytes.length).putInt(RECORD_MAGIC).putInt(bytes.length).put(bytes)
+                .putInt(checksum(bytes)).array();
+    }
+
+    private static int checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] encode(ItemStack itemStack) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        writeMap(output, itemStack.serialize());
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    private static ItemStack decode(byte[] bytes) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+        return ItemStack.deserialize(readMap(input));
+    }
+
+    private static ItemStack decodeLegacy(byte[] bytes) throws IOException {
+        try (BukkitObjectInputStream input = new BukkitObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (ItemStack) input.readObject();
+        } catch (ClassNotFoundException exception) {
+            throw new IOException("Could not read a legacy vault item", exception);
+        }
+    }
+
+    private static void writeValue(DataOutputStream output, Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(TAG_NULL);
+        } else if (value instanceof String) {
+            output.writeByte(TAG_STRING);
+            writeString(output, (String) value);
+        } else if (value instanceof Integer) {
+            output.writeByte(TAG_INTEGER);
+            output.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(TAG_LONG);
+            output.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            output.writeByte(TAG_DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            output.writeByte(TAG_FLOAT);
+            output.writeFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            output.writeByte(TAG_BOOLEAN);
+            output.writeBoolean((Boolean) value);
+        } else if (value instanceof Short) {
+            output.writeByte(TAG_SHORT);
+            output.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            output.writeByte(TAG_BYTE);
+            output.writeByte((Byte) value);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            output.writeByte(TAG_LIST);
+            output.writeInt(list.size());
+            for (Object element : list) {
+                writeValue(output, element);
+            }
+        } else if (value instanceof Map) {
+            output.writeByte(TAG_MAP);
+            writeMap(output, (Map<?, ?>) value);
+        } else if (value instanceof ConfigurationSerializable) {
+            ConfigurationSerializable serializable = (ConfigurationSerializable) value;
+            output.writeByte(TAG_SERIALIZABLE);
+            writeString(output, ConfigurationSerialization.getAlias(serializable.getClass()));
+            writeMap(output, serializable.serialize());
+        } else {
+            throw new IOException("Cannot store a value of " + value.getClass().getName());
+        }
+    }
+
+    private static Object readValue(DataInputStream input) throws IOException {
+        byte tag = input.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return readString(input);
+            case TAG_INTEGER:
+                return input.readInt();
+            case TAG_LONG:
+                return input.readLong();
+            case TAG_DOUBLE:
+                return input.readDouble();
+            case TAG_FLOAT:
+                return input.readFloat();
+            case TAG_BOOLEAN:
+                return input.readBoolean();
+            case TAG_SHORT:
+                return input.readShort();
+            case TAG_BYTE:
+                return input.readByte();
+            case TAG_LIST:
+                int size = input.readInt();
+                if (size < 0) throw new IOException("Invalid list size " + size);
+                List<Object> list = new ArrayList<>(Math.min(size, 1024));
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(input));
+                }
+                return list;
+            case TAG_MAP:
+                return readMap(input);
+            case TAG_SERIALIZABLE:
+                String alias = readString(input);
+                Map<String, Object> map = new LinkedHashMap<>();
+                map.put(ConfigurationSerialization.SERIALIZED_TYPE_KEY, alias);
+                map.putAll(readMap(input));
+                try {
+                    return ConfigurationSerialization.deserializeObject(map);
+                } catch (IllegalArgumentException exception) {
+                    throw new IOException("Could not deserialize " + alias, exception);
+                }
+            default:
+                throw new IOException("Unknown tag " + tag);
+        }
+    }
+
+    private static void writeMap(DataOutputStream output, Map<?, ?> map) throws IOException {
+        output.writeInt(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            writeString(output, String.valueOf(entry.getKey()));
+            writeValue(output, entry.getValue());
+        }
+    }
+
+    private static Map<String, Object> readMap(DataInputStream input) throws IOException {
+        int size = input.readInt();
+        if (size < 0) throw new IOException("Invalid map size " + size);
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            String key = readString(input);
+            map.put(key, readValue(input));
+        }
+        return map;
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0 || length > MAX_RECORD_LENGTH) throw new IOException("Invalid string length " + length);
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String fileName(String vaultId) {
+        try {
+            return URLEncoder.encode(vaultId, "UTF-8") + ".vault";
+        } catch (UnsupportedEncodingException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static final class VaultFile {
+
+        private final File file;
+        private byte[][] slots;
+        private int entries;
+
+        private VaultFile(File file) {
+            this.file = file;
+            this.slots = new byte[0][];
+        }
+
+        private void set(int slot, byte[] itemStack) {
+            if (slot >= slots.length) {
+                if (itemStack == null) return;
+                byte[][] grown = new byte[Math.max(slot + 1, slots.length * 2)][];
+                System.arraycopy(slots, 0, grown, 0, slots.length);
+                slots = grown;
+            }
+            slots[slot] = itemStack;
+        }
+
+        private int liveSlots() {
+            int count = 0;
+            for (byte[] slot : slots) {
+                if (slot != null) count++;
+            }
+            return count;
+        }
+    }
+}
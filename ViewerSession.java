@@ -0,0 +1,86 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * This class holds the state of a single viewer of a {@link SharedInventoryManager}.
+ * The state is kept until the viewer closes the inventory.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ * @see SharedInventoryManager
+ */
+public class ViewerSession {
+
+    private final UUID uuid;
+    private final long openedAt;
+    private final Map<String, Object> attributes;
+
+    /**
+     * Creates a new {@link ViewerSession} for the given viewer.
+     *
+     * @param uuid The UUID of the viewer.
+     * @since 1.1.0
+     */
+    public ViewerSession(UUID uuid) {
+        this.uuid = uuid;
+        this.openedAt = System.currentTimeMillis();
+        this.attributes = new HashMap<>();
+    }
+
+    /**
+     * Returns the UUID of the viewer.
+     *
+     * @return The UUID of the viewer.
+     * @since 1.1.0
+     */
+    public UUID getUUID() {
+        return uuid;
+    }
+
+    /**
+     * Returns the time in milliseconds when the viewer opened the inventory.
+     *
+     * @return The time in milliseconds when the viewer opened the inventory.
+     * @since 1.1.0
+     */
+    public long getOpenedAt() {
+        return openedAt;
+    }
+
+    /**
+     * Returns the attribute with the given key.
+     *
+     * @param key The key of the attribute.
+     * @param <T> The type of the attribute.
+     * @return The attribute or null if no attribute is set for the key.
+     * @since 1.1.0
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getAttribute(String key) {
+        return (T) attributes.get(key);
+    }
+
+    /**
+     * Sets the attribute with the given key.
+     *
+     * @param key   The key of the attribute.
+     * @param value The value of the attribute.
+     * @since 1.1.0
+     */
+    public void setAttribute(String key, Object value) {
+        attributes.put(key, value);
+    }
+
+    /**
+     * Removes the attribute with the given key.
+     *
+     * @param key The key of the attribute.
+     * @since 1.1.0
+     */
+    public void removeAttribute(String key) {
+        attributes.remove(key);
+    }
+}
@@ -0,0 +1,33 @@
+package de.splatcrafter.clansystem;
+
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
+
+import java.io.File;
+
+/**
+ * This class stands in for the main class of the ClanSystem plugin, so the InventoryAPI can be built on its own.
+ * It is only used to compile the InventoryAPI and to run the tests and benchmarks, it is not part of the jar.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+public class ClanSystem extends JavaPlugin {
+
+    public ClanSystem() {
+    }
+
+    /**
+     * Creates the plugin outside of a plugin class loader, for example in the test harness.
+     *
+     * @param loader      The {@link JavaPluginLoader} of the server.
+     * @param description The description of the plugin.
+     * @param dataFolder  The data folder of the plugin.
+     * @param file        The jar file of the plugin.
+     * @since 1.1.0
+     */
+    protected ClanSystem(JavaPluginLoader loader, PluginDescriptionFile description, File dataFolder, File file) {
+        super(loader, description, dataFolder, file);
+    }
+}
@@ -0,0 +1,92 @@
+package net.splatcrafter.clansystem.api.inventorymanager.benchmark;
+
+import net.splatcrafter.clansystem.api.inventorymanager.CustomItem;
+import net.splatcrafter.clansystem.api.inventorymanager.CustomItemInventoryCache;
+import net.splatcrafter.clansystem.api.inventorymanager.InventoryManager;
+import net.splatcrafter.clansystem.api.inventorymanager.harness.FakeServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This benchmark measures adding and removing {@link CustomItem}s in the {@link CustomItemInventoryCache} from four threads,
+ * like menus that are prepared on worker threads.
+ * In {@link #sharedMenu(Worker)} all threads change the same menu, in {@link #ownMenu(Worker)} each thread changes its own menu.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class CacheContentionBenchmark {
+
+    private static final int MENUS = 4;
+
+    private FakeServer server;
+    private CustomItemInventoryCache cache;
+    private InventoryManager[] menus;
+    private final AtomicInteger nextWorker = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = Harness.start();
+        cache = CustomItemInventoryCache.getInstance();
+        menus = new InventoryManager[MENUS];
+        for (int i = 0; i < MENUS; i++) {
+            menus[i] = Harness.openMenu(server.join("Player" + i), "Menu", event -> {
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Harness.stop(server);
+    }
+
+    @State(Scope.Thread)
+    public static class Worker {
+
+        private int index;
+        private List<CustomItem> item;
+
+        @Setup(Level.Trial)
+        public void setUp(CacheContentionBenchmark benchmark) {
+            index = benchmark.nextWorker.getAndIncrement() % MENUS;
+            item = Collections.singletonList(Harness.item(0, event -> {
+            }));
+        }
+    }
+
+    @Benchmark
+    public void sharedMenu(Worker worker) {
+        cache.updateCustomItems(menus[0], Collections.emptyList(), worker.item);
+        cache.updateCustomItems(menus[0], worker.item, Collections.emptyList());
+    }
+
+    @Benchmark
+    public void ownMenu(Worker worker) {
+        InventoryManager menu = menus[worker.index];
+        cache.updateCustomItems(menu, Collections.emptyList(), worker.item);
+        cache.updateCustomItems(menu, worker.item, Collections.emptyList());
+    }
+}
@@ -0,0 +1,87 @@
+package net.splatcrafter.clansystem.api.inventorymanager.benchmark;
+
+import net.splatcrafter.clansystem.api.inventorymanager.CatalogIndex;
+import net.splatcrafter.clansystem.api.inventorymanager.PageSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark measures {@link CatalogIndex#search(String)} on a catalog of 50,000 shop entries.
+ * The queries range from a selective one that matches a single entry to a single letter that matches most of the catalog.
+ * {@link #replace()} measures {@link CatalogIndex#put(String, Object)} of an entry that is already in the catalog.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogBenchmark {
+
+    private static final String[] QUALITIES = {"Rusty", "Sharp", "Enchanted", "Ancient", "Blessed", "Cursed", "Heavy", "Swift"};
+    private static final String[] MATERIALS = {"Wooden", "Stone", "Iron", "Golden", "Diamond", "Netherite"};
+    private static final String[] ITEMS = {"Sword", "Pickaxe", "Axe", "Shovel", "Hoe", "Helmet", "Chestplate", "Leggings", "Boots", "Bow"};
+
+    @Param({"50000"})
+    public int entries;
+
+    @Param({"diamond sword 4217", "diamond sword", "dia sw", "d", ""})
+    public String query;
+
+    private CatalogIndex<Entry> index;
+    private Entry[] catalog;
+    private int nextReplaced;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new CatalogIndex<>(entry -> entry.name, entry -> entry.lore, entry -> null);
+        catalog = new Entry[entries];
+        for (int i = 0; i < entries; i++) {
+            String name = QUALITIES[i % QUALITIES.length] + ' ' + MATERIALS[i / QUALITIES.length % MATERIALS.length] + ' '
+                    + ITEMS[i / (QUALITIES.length * MATERIALS.length) % ITEMS.length] + ' ' + i;
+            catalog[i] = new Entry(name, Arrays.asList("Costs " + (i % 500 + 1) + " coins", "Tier " + (i % 5 + 1)));
+            index.put("entry-" + i, catalog[i]);
+        }
+    }
+
+    @Benchmark
+    public PageSource search() {
+        return index.search(query);
+    }
+
+    @Benchmark
+    public CatalogIndex<Entry> replace() {
+        int i = nextReplaced;
+        if (++nextReplaced == entries) nextReplaced = 0;
+        index.put("entry-" + i, catalog[i]);
+        return index;
+    }
+
+    static final class Entry {
+
+        private final String name;
+        private final List<String> lore;
+
+        private Entry(String name, List<String> lore) {
+            this.name = name;
+            this.lore = lore;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package net.splatcrafter.clansystem.api.inventorymanager.benchmark;
+
+import net.splatcrafter.clansystem.api.inventorymanager.harness.FakeServer;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark measures a click through the real listeners while many players have a menu open.
+ * Each click goes to the next player and the next slot, so the dispatch cannot stay in the cache of a single menu.
+ * Run it with {@code -prof gc} to get the allocation per click as {@code gc.alloc.rate.norm}.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClickDispatchBenchmark {
+
+    @Param({"10", "100", "1000", "5000"})
+    public int openMenus;
+
+    private FakeServer server;
+    private Player[] players;
+    private int nextPlayer;
+    private int nextSlot;
+    private long handled;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = Harness.start();
+        players = new Player[openMenus];
+        for (int i = 0; i < openMenus; i++) {
+            players[i] = server.join("Player" + i);
+            Harness.openMenu(players[i], "Menu " + (i % 16), event -> handled++);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (handled == 0) throw new IllegalStateException("No click reached a handler");
+        Harness.stop(server);
+    }
+
+    @Benchmark
+    public InventoryClickEvent click() {
+        Player player = players[nextPlayer];
+        if (++nextPlayer == players.length) nextPlayer = 0;
+        int slot = nextSlot;
+        if (++nextSlot == Harness.MENU_SIZE) nextSlot = 0;
+        return server.click(player, slot);
+    }
+
+    @Benchmark
+    public InventoryClickEvent clickPlayerInventory() {
+        Player player = players[nextPlayer];
+        if (++nextPlayer == players.length) nextPlayer = 0;
+        return server.click(player, Harness.MENU_SIZE + 9);
+    }
+}
@@ -0,0 +1,65 @@
+package net.splatcrafter.clansystem.api.inventorymanager.benchmark;
+
+import net.splatcrafter.clansystem.api.inventorymanager.CachedIcon;
+import net.splatcrafter.clansystem.api.inventorymanager.ClickHandler;
+import net.splatcrafter.clansystem.api.inventorymanager.CustomItem;
+import net.splatcrafter.clansystem.api.inventorymanager.Icon;
+import net.splatcrafter.clansystem.api.inventorymanager.InventoryApiRegister;
+import net.splatcrafter.clansystem.api.inventorymanager.InventoryManager;
+import net.splatcrafter.clansystem.api.inventorymanager.MenuTemplate;
+import net.splatcrafter.clansystem.api.inventorymanager.harness.FakeServer;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+
+/**
+ * This class sets up the InventoryAPI on the {@link FakeServer} and builds the menus of the benchmarks.
+ * All menus use the same icons, so the {@link net.splatcrafter.clansystem.api.inventorymanager.IconFactory} builds them only once.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+final class Harness {
+
+    static final int MENU_SIZE = 54;
+
+    private Harness() {
+    }
+
+    static FakeServer start() {
+        FakeServer server = FakeServer.start();
+        new InventoryApiRegister(server.enablePlugin());
+        InventoryApiRegister.getMetrics().setSlowHandlerThreshold(0);
+        return server;
+    }
+
+    static void stop(FakeServer server) {
+        InventoryApiRegister.shutdown();
+        server.reset();
+    }
+
+    static CachedIcon icon(int slot) {
+        return new Icon(Material.PAPER).name("Entry " + slot).lore("Click to select").build();
+    }
+
+    static CustomItem item(int slot, ClickHandler handler) {
+        return CustomItem.of(slot, icon(slot).getItemStack(), handler);
+    }
+
+    static InventoryManager openMenu(Player player, String name, ClickHandler handler) {
+        InventoryManager inventoryManager = new InventoryManager(player, MENU_SIZE, name, true);
+        CustomItem[] customItems = new CustomItem[MENU_SIZE];
+        for (int slot = 0; slot < MENU_SIZE; slot++) {
+            customItems[slot] = item(slot, handler);
+        }
+        inventoryManager.setItems(customItems);
+        return inventoryManager;
+    }
+
+    static MenuTemplate template(String name, ClickHandler handler) {
+        MenuTemplate template = new MenuTemplate(MENU_SIZE, name, true);
+        for (int slot = 0; slot < MENU_SIZE; slot++) {
+            template.setItem(item(slot, handler));
+        }
+        return template.compile();
+    }
+}
@@ -0,0 +1,76 @@
+package net.splatcrafter.clansystem.api.inventorymanager.benchmark;
+
+import net.splatcrafter.clansystem.api.inventorymanager.ClickHandler;
+import net.splatcrafter.clansystem.api.inventorymanager.InventoryManager;
+import net.splatcrafter.clansystem.api.inventorymanager.MenuTemplate;
+import net.splatcrafter.clansystem.api.inventorymanager.harness.FakeServer;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark measures opening and closing menus with 54 items.
+ * {@link #open()} opens a menu over the menu of the last invocation, so the server closes the old one first,
+ * {@link #openClose()} opens a menu and closes it again, and {@link #openTemplate()} opens a compiled {@link MenuTemplate}.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenCloseBenchmark {
+
+    private static final ClickHandler HANDLER = event -> {
+    };
+
+    private FakeServer server;
+    private Player player;
+    private MenuTemplate template;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = Harness.start();
+        player = server.join("Player");
+        template = Harness.template("Template", HANDLER);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Harness.stop(server);
+    }
+
+    @Benchmark
+    public InventoryManager open() {
+        return Harness.openMenu(player, "Menu", HANDLER);
+    }
+
+    @Benchmark
+    public InventoryManager openClose() {
+        InventoryManager inventoryManager = Harness.openMenu(player, "Menu", HANDLER);
+        server.close(player);
+        return inventoryManager;
+    }
+
+    @Benchmark
+    public InventoryManager openTemplate() {
+        InventoryManager inventoryManager = template.open(player);
+        server.close(player);
+        return inventoryManager;
+    }
+}
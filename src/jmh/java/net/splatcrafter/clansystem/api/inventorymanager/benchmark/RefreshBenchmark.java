@@ -0,0 +1,74 @@
+package net.splatcrafter.clansystem.api.inventorymanager.benchmark;
+
+import net.splatcrafter.clansystem.api.inventorymanager.CustomItem;
+import net.splatcrafter.clansystem.api.inventorymanager.InventoryManager;
+import net.splatcrafter.clansystem.api.inventorymanager.harness.FakeServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark measures {@link InventoryManager#refresh()} of a menu with 54 live slots.
+ * {@link #refreshUnchanged()} renders the same items again, so no slot is written,
+ * while {@link #refreshChanged()} switches between two sets of items, so every slot is written.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RefreshBenchmark {
+
+    private FakeServer server;
+    private InventoryManager inventoryManager;
+    private CustomItem[][] items;
+    private int version;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = Harness.start();
+        inventoryManager = new InventoryManager(server.join("Player"), Harness.MENU_SIZE, "Live menu", true);
+        items = new CustomItem[2][Harness.MENU_SIZE];
+        for (int slot = 0; slot < Harness.MENU_SIZE; slot++) {
+            items[0][slot] = Harness.item(slot, event -> {
+            });
+            items[1][slot] = Harness.item((slot + 1) % Harness.MENU_SIZE, event -> {
+            });
+            int liveSlot = slot;
+            inventoryManager.setLiveItem(slot, menu -> items[version][liveSlot]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Harness.stop(server);
+    }
+
+    @Benchmark
+    public InventoryManager refreshUnchanged() {
+        inventoryManager.refresh();
+        return inventoryManager;
+    }
+
+    @Benchmark
+    public InventoryManager refreshChanged() {
+        version ^= 1;
+        inventoryManager.refresh();
+        return inventoryManager;
+    }
+}
@@ -0,0 +1,102 @@
+package net.splatcrafter.clansystem.api.inventorymanager.benchmark;
+
+import net.splatcrafter.clansystem.api.inventorymanager.ClickHandler;
+import net.splatcrafter.clansystem.api.inventorymanager.InventoryApiRegister;
+import net.splatcrafter.clansystem.api.inventorymanager.InventoryMetrics;
+import net.splatcrafter.clansystem.api.inventorymanager.MenuTemplate;
+import net.splatcrafter.clansystem.api.inventorymanager.harness.FakeServer;
+import org.bukkit.entity.Player;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * This program runs many player sessions through the InventoryAPI and reports the heap that is retained afterwards.
+ * Each session joins, opens a menu and a template, clicks some slots, closes the menu and quits or is kicked.
+ * The server ticks after every session, so the sweeper and the throttles run like on a server.
+ * <br>
+ * The program exits with 1 if an {@link net.splatcrafter.clansystem.api.inventorymanager.InventoryManager}
+ * or a {@link net.splatcrafter.clansystem.api.inventorymanager.CustomItem} of a finished session is still cached.
+ * <pre>{@code
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=net.splatcrafter.clansystem.api.inventorymanager.benchmark.SoakTest -Dbenchmark.args=100000
+ * }</pre>
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+public final class SoakTest {
+
+    private static final int WARMUP_SESSIONS = 1000;
+    private static final int REPORT_INTERVAL = 10000;
+
+    private SoakTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        FakeServer server = Harness.start();
+        ClickHandler handler = event -> {
+        };
+        MenuTemplate template = Harness.template("Template", handler);
+
+        long baseline = 0;
+        for (int session = 0; session < sessions; session++) {
+            runSession(server, template, handler, session);
+            server.tick();
+            if (session + 1 == WARMUP_SESSIONS) {
+                baseline = retainedHeap();
+                report("warmup", session + 1, baseline);
+            } else if ((session + 1) % REPORT_INTERVAL == 0) {
+                report("sessions", session + 1, retainedHeap());
+            }
+        }
+        server.tick(600);
+        long retained = retainedHeap();
+        report("finished", sessions, retained);
+        if (sessions > WARMUP_SESSIONS) {
+            System.out.printf("retained per session after warmup: %.1f bytes%n", (retained - baseline) / (double) (sessions - WARMUP_SESSIONS));
+        }
+
+        InventoryMetrics metrics = InventoryApiRegister.getMetrics();
+        int openInventories = metrics.getOpenInventoryCount();
+        int customItems = metrics.getCachedCustomItemCount();
+        int pendingTasks = server.getPendingTaskCount();
+        System.out.println("open inventories: " + openInventories + ", cached custom items: " + customItems + ", pending tasks: " + pendingTasks);
+        Harness.stop(server);
+        if (openInventories != 0 || customItems != 0) {
+            System.out.println("Sessions were not released");
+            System.exit(1);
+        }
+    }
+
+    private static void runSession(FakeServer server, MenuTemplate template, ClickHandler handler, int session) {
+        Player player = server.join("Player" + session);
+        Harness.openMenu(player, "Menu " + (session % 16), handler);
+        for (int slot = 0; slot < Harness.MENU_SIZE; slot += 9) {
+            server.click(player, slot);
+        }
+        template.open(player);
+        server.click(player, session % Harness.MENU_SIZE);
+        server.close(player);
+        if (session % 10 == 0) {
+            server.kick(player);
+        } else {
+            server.quit(player);
+        }
+    }
+
+    private static long retainedHeap() throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(50);
+            used = Math.min(used, memory.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+
+    private static void report(String phase, int sessions, long retained) {
+        System.out.printf("%s: %d sessions, retained heap %.2f MiB%n", phase, sessions, retained / (1024.0 * 1024.0));
+    }
+}
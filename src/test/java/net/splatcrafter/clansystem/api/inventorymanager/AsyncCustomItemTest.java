@@ -0,0 +1,93 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import net.splatcrafter.clansystem.api.inventorymanager.harness.FakeServer;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class checks that the result of an {@link AsyncCustomItem} is applied while the menu is open
+ * and passed to {@link AsyncCustomItem#onStale(ClickSnapshot, ClickResult, Player)} after the menu was closed.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+class AsyncCustomItemTest {
+
+    private FakeServer server;
+    private Player player;
+    private AtomicInteger applied;
+    private AtomicInteger stale;
+    private AtomicReference<Player> stalePlayer;
+
+    @BeforeEach
+    void setUp() {
+        server = FakeServer.start();
+        new InventoryApiRegister(server.enablePlugin());
+        player = server.join("Player");
+        applied = new AtomicInteger();
+        stale = new AtomicInteger();
+        stalePlayer = new AtomicReference<>();
+        new InventoryManager(player, 27, "Menu", true).setItem(new AsyncCustomItem(4, new ItemStack(Material.EMERALD)) {
+            @Override
+            public ClickResult onAsyncClick(ClickSnapshot snapshot) {
+                return (inventoryManager, clicker) -> applied.incrementAndGet();
+            }
+
+            @Override
+            protected void onStale(ClickSnapshot snapshot, ClickResult result, Player clicker) {
+                stalePlayer.set(clicker);
+                stale.incrementAndGet();
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        InventoryApiRegister.shutdown();
+        server.reset();
+    }
+
+    @Test
+    void resultIsAppliedWhileMenuIsOpen() throws InterruptedException {
+        server.click(player, 4);
+
+        tickUntil(() -> applied.get() + stale.get() > 0);
+
+        assertEquals(1, applied.get());
+        assertEquals(0, stale.get());
+    }
+
+    @Test
+    void resultOfClosedMenuIsPassedToOnStale() throws InterruptedException {
+        server.click(player, 4);
+        server.close(player);
+
+        tickUntil(() -> applied.get() + stale.get() > 0);
+
+        assertEquals(0, applied.get());
+        assertEquals(1, stale.get());
+        assertSame(player, stalePlayer.get());
+    }
+
+    private void tickUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            server.tick();
+            Thread.sleep(1);
+        }
+        assertTrue(condition.getAsBoolean(), "the result was not handled within 5 seconds");
+    }
+}
@@ -0,0 +1,201 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import net.splatcrafter.clansystem.api.inventorymanager.harness.FakeServer;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * This class changes the {@link CustomItemInventoryCache} from several threads at the same time
+ * while other threads read it, and checks that no change is lost and that readers only see complete {@link Set}s.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+class CustomItemInventoryCacheStressTest {
+
+    private static final int WRITERS = 8;
+    private static final int READERS = 2;
+    private static final int MENUS = 4;
+    private static final int ITEMS_PER_WRITER = 2000;
+    private static final int SWAPS_PER_WRITER = 20000;
+
+    private CustomItemInventoryCache cache;
+    private InventoryManager[] menus;
+
+    @BeforeAll
+    static void startServer() {
+        FakeServer.start();
+    }
+
+    @BeforeEach
+    void setUp() {
+        cache = new CustomItemInventoryCache();
+        menus = new InventoryManager[MENUS];
+        for (int i = 0; i < MENUS; i++) {
+            menus[i] = new InventoryManager(UUID.randomUUID(), 54, "Menu " + i, true);
+        }
+    }
+
+    @Test
+    void concurrentAddAndRemoveKeepEveryItem() throws Exception {
+        List<List<CustomItem>> kept = new ArrayList<>();
+        for (int writer = 0; writer < WRITERS; writer++) {
+            kept.add(Collections.synchronizedList(new ArrayList<>()));
+        }
+        run(writer -> {
+            List<CustomItem> removed = new ArrayList<>();
+            for (int i = 0; i < ITEMS_PER_WRITER; i++) {
+                InventoryManager menu = menus[i % MENUS];
+                CustomItem customItem = item(i);
+                if (i % 3 == 0) {
+                    cache.updateCustomItems(menu, Collections.emptyList(), Collections.singletonList(customItem));
+                } else {
+                    cache.addCustomItem(menu, customItem);
+                }
+                if (i % 2 == 0) {
+                    cache.removeCustomItem(menu, customItem);
+                    removed.add(customItem);
+                } else {
+                    kept.get(writer).add(customItem);
+                }
+            }
+        }, () -> {
+            for (Set<CustomItem> customItems : cache.getCustomItemHashMap().values()) {
+                int count = 0;
+                for (CustomItem ignored : customItems) {
+                    count++;
+                }
+                assertEquals(customItems.size(), count);
+                assertThrows(UnsupportedOperationException.class, () -> customItems.add(item(0)));
+            }
+        });
+
+        Set<CustomItem> expected = new HashSet<>();
+        for (List<CustomItem> customItems : kept) {
+            expected.addAll(customItems);
+        }
+        Set<CustomItem> actual = new HashSet<>();
+        for (InventoryManager menu : menus) {
+            actual.addAll(cache.getCustomItemHashMap().get(menu));
+        }
+        assertEquals(expected, actual);
+        assertEquals(WRITERS * ITEMS_PER_WRITER / 2, cache.getCustomItemCount());
+    }
+
+    @Test
+    void updateCustomItemsIsAtomic() throws Exception {
+        CustomItem[][] pairs = new CustomItem[WRITERS][];
+        for (int writer = 0; writer < WRITERS; writer++) {
+            pairs[writer] = new CustomItem[]{item(writer), item(writer)};
+            cache.addCustomItem(menus[0], pairs[writer][0]);
+        }
+        run(writer -> {
+            CustomItem[] pair = pairs[writer];
+            for (int i = 0; i < SWAPS_PER_WRITER; i++) {
+                CustomItem current = pair[i & 1];
+                CustomItem next = pair[(i + 1) & 1];
+                cache.updateCustomItems(menus[0], Collections.singletonList(current), Collections.singletonList(next));
+            }
+        }, () -> {
+            Set<CustomItem> customItems = cache.getCustomItemHashMap().get(menus[0]);
+            for (CustomItem[] pair : pairs) {
+                assertTrue(customItems.contains(pair[0]) ^ customItems.contains(pair[1]), "a swap was seen half applied");
+            }
+        });
+
+        Set<CustomItem> customItems = cache.getCustomItemHashMap().get(menus[0]);
+        for (CustomItem[] pair : pairs) {
+            assertTrue(customItems.contains(pair[SWAPS_PER_WRITER & 1]));
+        }
+        assertEquals(WRITERS, customItems.size());
+    }
+
+    @Test
+    void removeInventoryManagerWhileOtherMenusChange() throws Exception {
+        run(writer -> {
+            for (int i = 0; i < ITEMS_PER_WRITER; i++) {
+                if (writer == 0) {
+                    cache.addCustomItem(menus[0], item(i));
+                    cache.removeInventoryManager(menus[0]);
+                } else {
+                    cache.addCustomItem(menus[1 + writer % (MENUS - 1)], item(i));
+                }
+            }
+        }, cache::getCustomItemCount);
+
+        assertFalse(cache.containsInventoryManager(menus[0]));
+        assertEquals((WRITERS - 1) * ITEMS_PER_WRITER, cache.getCustomItemCount());
+    }
+
+    private void run(Writer writer, Runnable reader) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        CyclicBarrier barrier = new CyclicBarrier(WRITERS + READERS);
+        AtomicBoolean running = new AtomicBoolean(true);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                int index = i;
+                writers.add(executor.submit((Callable<Void>) () -> {
+                    barrier.await();
+                    writer.run(index);
+                    return null;
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < READERS; i++) {
+                readers.add(executor.submit((Callable<Void>) () -> {
+                    barrier.await();
+                    while (running.get()) {
+                        reader.run();
+                    }
+                    return null;
+                }));
+            }
+            try {
+                for (Future<?> future : writers) {
+                    future.get(30, TimeUnit.SECONDS);
+                }
+            } finally {
+                running.set(false);
+            }
+            for (Future<?> future : readers) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static CustomItem item(int slot) {
+        return CustomItem.of(slot % 54, new ItemStack(Material.PAPER), event -> {
+        });
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+
+        void run(int writer) throws Exception;
+    }
+}
@@ -0,0 +1,108 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import net.splatcrafter.clansystem.api.inventorymanager.harness.FakeServer;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * This class checks that several {@link InvalidationBus}es that are connected by an {@link InMemoryInvalidationHub}
+ * send every key once per tick and invalidate every subscribed {@link InventoryManager} once per tick.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+class InvalidationBusTest {
+
+    private FakeServer server;
+    private InMemoryInvalidationHub hub;
+    private InvalidationBus first;
+    private InvalidationBus second;
+    private InvalidationBus third;
+
+    @BeforeEach
+    void setUp() {
+        server = FakeServer.start();
+        new InventoryApiRegister(server.enablePlugin());
+        hub = new InMemoryInvalidationHub();
+        first = InventoryApiRegister.getInvalidationBus();
+        first.setTransport(hub.connect());
+        second = new InvalidationBus(hub.connect());
+        third = new InvalidationBus(hub.connect());
+    }
+
+    @AfterEach
+    void tearDown() {
+        second.close();
+        third.close();
+        InventoryApiRegister.shutdown();
+        server.reset();
+    }
+
+    @Test
+    void keysArePublishedOncePerTick() {
+        for (int i = 0; i < 5; i++) {
+            first.publish("clan:1");
+            second.publish("clan:1");
+        }
+        second.publish("clan:2");
+
+        runBuses();
+
+        assertEquals(3, hub.size());
+        assertEquals(1, first.getPublishedKeys());
+        assertEquals(1, first.getSentBatches());
+        assertEquals(2, second.getPublishedKeys());
+        assertEquals(1, second.getSentBatches());
+        assertEquals(0, third.getSentBatches());
+        assertEquals(3, third.getReceivedKeys());
+    }
+
+    @Test
+    void subscribedMenusAreInvalidatedOncePerTick() {
+        AtomicInteger firstInvalidations = new AtomicInteger();
+        AtomicInteger thirdInvalidations = new AtomicInteger();
+        AtomicInteger otherInvalidations = new AtomicInteger();
+        InventoryManager firstMenu = menu(server.join("First"), firstInvalidations);
+        InventoryManager thirdMenu = menu(server.join("Third"), thirdInvalidations);
+        InventoryManager otherMenu = menu(server.join("Other"), otherInvalidations);
+        firstMenu.subscribe("clan:1");
+        third.subscribe("clan:1", thirdMenu);
+        third.subscribe("clan:2", thirdMenu);
+        third.subscribe("clan:3", otherMenu);
+
+        for (int i = 0; i < 5; i++) {
+            first.publish("clan:1");
+        }
+        second.publish("clan:1");
+        second.publish("clan:2");
+
+        runBuses();
+        InventoryApiRegister.getScheduler().run();
+
+        assertEquals(1, firstInvalidations.get());
+        assertEquals(1, thirdInvalidations.get());
+        assertEquals(0, otherInvalidations.get());
+        assertEquals(1, third.getInvalidatedInventories());
+    }
+
+    private void runBuses() {
+        first.run();
+        second.run();
+        third.run();
+    }
+
+    private InventoryManager menu(Player player, AtomicInteger invalidations) {
+        return new InventoryManager(player, 27, "Menu", true) {
+            @Override
+            protected void onInvalidated() {
+                invalidations.incrementAndGet();
+            }
+        };
+    }
+}
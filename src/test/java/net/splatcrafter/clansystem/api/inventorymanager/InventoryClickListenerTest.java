@@ -0,0 +1,76 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import net.splatcrafter.clansystem.api.inventorymanager.harness.FakeServer;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * This class checks that clicks in the player inventory which can take items out of a menu make the menu check
+ * the fingerprints of its items again.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+class InventoryClickListenerTest {
+
+    private FakeServer server;
+    private Player player;
+    private InventoryManager inventoryManager;
+    private AtomicInteger clicks;
+
+    @BeforeEach
+    void setUp() {
+        server = FakeServer.start();
+        new InventoryApiRegister(server.enablePlugin());
+        player = server.join("Player");
+        clicks = new AtomicInteger();
+        inventoryManager = new InventoryManager(player, 27, "Menu", false);
+        inventoryManager.setFingerprintCheck(true);
+        inventoryManager.setItem(CustomItem.of(0, new ItemStack(Material.DIAMOND), event -> clicks.incrementAndGet()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        InventoryApiRegister.shutdown();
+        server.reset();
+    }
+
+    @Test
+    void collectToCursorInPlayerInventoryMarksItemsMoved() {
+        server.click(player, 27 + 5, ClickType.DOUBLE_CLICK, InventoryAction.COLLECT_TO_CURSOR);
+        inventoryManager.getInventory().setItem(0, new ItemStack(Material.STONE));
+
+        server.click(player, 0);
+
+        assertEquals(0, clicks.get());
+    }
+
+    @Test
+    void moveToOtherInventoryFromPlayerInventoryMarksItemsMoved() {
+        server.click(player, 27 + 5, ClickType.SHIFT_LEFT, InventoryAction.MOVE_TO_OTHER_INVENTORY);
+        inventoryManager.getInventory().setItem(0, new ItemStack(Material.STONE));
+
+        server.click(player, 0);
+
+        assertEquals(0, clicks.get());
+    }
+
+    @Test
+    void unchangedItemIsStillDispatchedAfterMove() {
+        server.click(player, 27 + 5, ClickType.DOUBLE_CLICK, InventoryAction.COLLECT_TO_CURSOR);
+
+        server.click(player, 0);
+
+        assertEquals(1, clicks.get());
+    }
+}
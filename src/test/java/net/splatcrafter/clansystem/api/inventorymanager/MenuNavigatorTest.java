@@ -0,0 +1,80 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import net.splatcrafter.clansystem.api.inventorymanager.harness.FakeServer;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * This class checks that a menu which is reopened from the cache of the {@link MenuNavigator}
+ * is registered in the {@link CustomItemInventoryCache} again, like a menu that is opened for the first time.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+class MenuNavigatorTest {
+
+    private FakeServer server;
+    private MenuNavigator navigator;
+
+    @BeforeEach
+    void setUp() {
+        server = FakeServer.start();
+        new InventoryApiRegister(server.enablePlugin());
+        navigator = InventoryApiRegister.getNavigator();
+    }
+
+    @AfterEach
+    void tearDown() {
+        InventoryApiRegister.shutdown();
+        server.reset();
+    }
+
+    @Test
+    void reopenedMenuRegistersItsItemsAgain() {
+        Player player = server.join("Navigator");
+        CustomItem customItem = CustomItem.of(0, new ItemStack(Material.DIAMOND), event -> { });
+        InventoryManager first = navigator.push(player, MenuFactory.of("first", () -> 1, p -> {
+            InventoryManager inventoryManager = new InventoryManager(p, 27, "First", true);
+            inventoryManager.setItem(customItem);
+            return inventoryManager;
+        }));
+        navigator.push(player, MenuFactory.of("second", () -> 1, p -> new InventoryManager(p, 27, "Second", true)));
+        CustomItemInventoryCache cache = CustomItemInventoryCache.getInstance();
+        assertFalse(cache.containsInventoryManager(first));
+
+        InventoryManager reopened = navigator.back(player);
+
+        assertSame(first, reopened);
+        assertEquals(1, navigator.getHits());
+        assertEquals(Collections.singleton(customItem), cache.getCustomItemHashMap().get(first));
+    }
+
+    @Test
+    void itemReplacedWhileClosedIsNotRegisteredAgain() {
+        Player player = server.join("Navigator");
+        CustomItem replacedItem = CustomItem.of(0, new ItemStack(Material.DIAMOND), event -> { });
+        CustomItem keptItem = CustomItem.of(1, new ItemStack(Material.EMERALD), event -> { });
+        InventoryManager first = navigator.push(player, MenuFactory.of("first", () -> 1, p -> {
+            InventoryManager inventoryManager = new InventoryManager(p, 27, "First", true);
+            inventoryManager.setItem(replacedItem);
+            inventoryManager.setItem(keptItem);
+            return inventoryManager;
+        }));
+        navigator.push(player, MenuFactory.of("second", () -> 1, p -> new InventoryManager(p, 27, "Second", true)));
+        first.removeItem(0);
+
+        navigator.back(player);
+
+        assertEquals(Collections.singleton(keptItem), CustomItemInventoryCache.getInstance().getCustomItemHashMap().get(first));
+    }
+}
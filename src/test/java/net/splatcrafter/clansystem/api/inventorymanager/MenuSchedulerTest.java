@@ -0,0 +1,83 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import net.splatcrafter.clansystem.api.inventorymanager.harness.FakeServer;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * This class checks that the {@link MenuScheduler} keeps working when a job cancels the jobs of its own menu.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+class MenuSchedulerTest {
+
+    private FakeServer server;
+    private MenuScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        server = FakeServer.start();
+        new InventoryApiRegister(server.enablePlugin());
+        scheduler = InventoryApiRegister.getScheduler();
+    }
+
+    @AfterEach
+    void tearDown() {
+        InventoryApiRegister.shutdown();
+        server.reset();
+    }
+
+    @Test
+    void jobThatClosesItsMenuDropsTheQueuedJobs() {
+        Player player = server.join("Closer");
+        Player other = server.join("Other");
+        InventoryManager inventoryManager = new InventoryManager(player, 27, "Menu", true);
+        InventoryManager otherInventoryManager = new InventoryManager(other, 27, "Other menu", true);
+        AtomicInteger ran = new AtomicInteger();
+        AtomicInteger otherRan = new AtomicInteger();
+        scheduler.schedule(inventoryManager, () -> {
+            ran.incrementAndGet();
+            player.closeInventory();
+        });
+        scheduler.schedule(inventoryManager, ran::incrementAndGet);
+        scheduler.schedule(inventoryManager, ran::incrementAndGet);
+        scheduler.schedule(otherInventoryManager, otherRan::incrementAndGet);
+        scheduler.schedule(otherInventoryManager, otherRan::incrementAndGet);
+
+        assertDoesNotThrow(scheduler::run);
+        assertDoesNotThrow(scheduler::run);
+
+        assertEquals(1, ran.get());
+        assertEquals(2, otherRan.get());
+        assertEquals(0, scheduler.getQueueDepth());
+    }
+
+    @Test
+    void jobThatClosesItsMenuOverSeveralTicks() {
+        Player player = server.join("Closer");
+        InventoryManager inventoryManager = new InventoryManager(player, 27, "Menu", true);
+        scheduler.setBudgetNanos(0);
+        AtomicInteger ran = new AtomicInteger();
+        scheduler.schedule(inventoryManager, ran::incrementAndGet);
+        scheduler.schedule(inventoryManager, () -> {
+            ran.incrementAndGet();
+            player.closeInventory();
+        });
+        scheduler.schedule(inventoryManager, ran::incrementAndGet);
+
+        for (int tick = 0; tick < 4; tick++) {
+            assertDoesNotThrow(scheduler::run);
+        }
+
+        assertEquals(2, ran.get());
+        assertEquals(0, scheduler.getQueueDepth());
+    }
+}
@@ -0,0 +1,47 @@
+package net.splatcrafter.clansystem.api.inventorymanager;
+
+import net.splatcrafter.clansystem.api.inventorymanager.harness.FakeServer;
+import org.bukkit.Material;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * This class checks that a {@link SharedInventoryManager} without a single player can still resolve placeholders.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+class SharedInventoryManagerTest {
+
+    private FakeServer server;
+
+    @BeforeEach
+    void setUp() {
+        server = FakeServer.start();
+        new InventoryApiRegister(server.enablePlugin());
+    }
+
+    @AfterEach
+    void tearDown() {
+        InventoryApiRegister.shutdown();
+        server.reset();
+    }
+
+    @Test
+    void placeholdersAreResolvedWithoutPlayer() {
+        SharedInventoryManager shared = new SharedInventoryManager(27, "Shared", true);
+        shared.open(server.join("Viewer"));
+        shared.setPlaceholderResolver((player, key) -> player == null ? "everyone" : player.getName());
+        shared.setTemplatedItem(13, new TemplatedIcon(Material.PAPER, "Clan {clan}"), event -> {
+        });
+
+        assertNull(shared.getPlayer());
+        assertEquals("Clan everyone", shared.getInventory().getItem(13).getItemMeta().getDisplayName());
+        assertDoesNotThrow(shared::updatePlaceholders);
+    }
+}
@@ -0,0 +1,141 @@
+package net.splatcrafter.clansystem.api.inventorymanager.harness;
+
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * This class is an {@link Inventory} of the {@link FakeServer} that keeps its contents in an array.
+ * Like the server, it stores a copy of every {@link ItemStack} that is set and returns the stored stack.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+final class FakeInventory implements InvocationHandler {
+
+    private final Inventory inventory;
+    private final InventoryType type;
+    private final InventoryHolder holder;
+    private final ItemStack[] items;
+    private final List<HumanEntity> viewers;
+
+    private FakeInventory(Class<? extends Inventory> inventoryClass, InventoryType type, InventoryHolder holder, int size) {
+        this.type = type;
+        this.holder = holder;
+        this.items = new ItemStack[size];
+        this.viewers = new ArrayList<>();
+        this.inventory = Fakes.proxy(inventoryClass, this);
+    }
+
+    static Inventory chest(InventoryHolder holder, int size) {
+        if (size < 9 || size > 54 || size % 9 != 0)
+            throw new IllegalArgumentException("Chests must have a size that is a multiple of 9, between 9 and 54 slots");
+        return new FakeInventory(Inventory.class, InventoryType.CHEST, holder, size).inventory;
+    }
+
+    static Inventory of(InventoryHolder holder, InventoryType type) {
+        return new FakeInventory(Inventory.class, type, holder, type.getDefaultSize()).inventory;
+    }
+
+    static PlayerInventory player(HumanEntity holder) {
+        return (PlayerInventory) new FakeInventory(PlayerInventory.class, InventoryType.PLAYER, holder, 41).inventory;
+    }
+
+    static List<HumanEntity> viewers(Inventory inventory) {
+        return ((FakeInventory) Proxy.getInvocationHandler(inventory)).viewers;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        Object result = Fakes.objectMethod(proxy, method, args, this);
+        if (result != Fakes.UNHANDLED) return result;
+        switch (method.getName()) {
+            case "getSize":
+                return items.length;
+            case "getMaxStackSize":
+                return 64;
+            case "getItem":
+                return items[(Integer) args[0]];
+            case "setItem":
+                items[(Integer) args[0]] = copy((ItemStack) args[1]);
+                return null;
+            case "getContents":
+            case "getStorageContents":
+                return items.clone();
+            case "setContents":
+            case "setStorageContents":
+                ItemStack[] contents = (ItemStack[]) args[0];
+                if (contents.length > items.length)
+                    throw new IllegalArgumentException("Invalid inventory size (" + contents.length + "); expected " + items.length + " or less");
+                for (int slot = 0; slot < items.length; slot++) {
+                    items[slot] = slot < contents.length ? copy(contents[slot]) : null;
+                }
+                return null;
+            case "addItem":
+                return addItem((ItemStack[]) args[0]);
+            case "firstEmpty":
+                for (int slot = 0; slot < items.length; slot++) {
+                    if (items[slot] == null) return slot;
+                }
+                return -1;
+            case "isEmpty":
+                for (ItemStack itemStack : items) {
+                    if (itemStack != null) return false;
+                }
+                return true;
+            case "clear":
+                if (args == null) {
+                    Arrays.fill(items, null);
+                } else {
+                    items[(Integer) args[0]] = null;
+                }
+                return null;
+            case "getViewers":
+                return new ArrayList<>(viewers);
+            case "getType":
+                return type;
+            case "getHolder":
+                return holder;
+            case "iterator":
+                return Arrays.asList(items.clone()).listIterator();
+            case "getHeldItemSlot":
+                return 0;
+            default:
+                return Fakes.defaultValue(method);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return type + " inventory of " + holder;
+    }
+
+    private HashMap<Integer, ItemStack> addItem(ItemStack[] itemStacks) {
+        HashMap<Integer, ItemStack> leftover = new HashMap<>();
+        for (int i = 0; i < itemStacks.length; i++) {
+            int slot = 0;
+            while (slot < items.length && items[slot] != null) slot++;
+            if (slot == items.length) {
+                leftover.put(i, itemStacks[i]);
+            } else {
+                items[slot] = copy(itemStacks[i]);
+            }
+        }
+        return leftover;
+    }
+
+    private static ItemStack copy(ItemStack itemStack) {
+        return itemStack == null ? null : itemStack.clone();
+    }
+}
@@ -0,0 +1,185 @@
+package net.splatcrafter.clansystem.api.inventorymanager.harness;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * This class is the {@link ItemFactory} of the {@link FakeServer}.
+ * Its {@link ItemMeta} keeps the display name, the lore, the flags and the custom model data,
+ * and is copied like the meta of the server whenever it is read from or written to an {@link org.bukkit.inventory.ItemStack}.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+final class FakeItemFactory implements InvocationHandler {
+
+    private final ItemFactory itemFactory;
+
+    FakeItemFactory() {
+        this.itemFactory = Fakes.proxy(ItemFactory.class, this);
+    }
+
+    ItemFactory getItemFactory() {
+        return itemFactory;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        Object result = Fakes.objectMethod(proxy, method, args, this);
+        if (result != Fakes.UNHANDLED) return result;
+        switch (method.getName()) {
+            case "getItemMeta":
+                return args[0] == Material.AIR ? null : new Meta().meta;
+            case "isApplicable":
+                return true;
+            case "equals":
+                return state(args[0]).equals(state(args[1]));
+            case "asMetaFor":
+                return args[0] == null ? null : ((ItemMeta) args[0]).clone();
+            case "updateMaterial":
+                return args[1];
+            default:
+                return Fakes.defaultValue(method);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FakeItemFactory";
+    }
+
+    private static Meta state(Object itemMeta) {
+        return itemMeta == null ? Meta.EMPTY : (Meta) Proxy.getInvocationHandler(itemMeta);
+    }
+
+    private static final class Meta implements InvocationHandler {
+
+        private static final Meta EMPTY = new Meta();
+
+        private final ItemMeta meta;
+        private String displayName;
+        private List<String> lore;
+        private Integer customModelData;
+        private final Set<ItemFlag> flags;
+
+        private Meta() {
+            this.meta = Fakes.proxy(ItemMeta.class, this);
+            this.flags = EnumSet.noneOf(ItemFlag.class);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "equals":
+                    return args[0] instanceof ItemMeta && Proxy.isProxyClass(args[0].getClass())
+                            && Proxy.getInvocationHandler(args[0]) instanceof Meta && equals(Proxy.getInvocationHandler(args[0]));
+                case "hashCode":
+                    return hashCode();
+                case "toString":
+                    return toString();
+                case "hasDisplayName":
+                    return displayName != null;
+                case "getDisplayName":
+                    return displayName;
+                case "setDisplayName":
+                    displayName = (String) args[0];
+                    return null;
+                case "hasLore":
+                    return lore != null;
+                case "getLore":
+                    return lore == null ? null : new ArrayList<>(lore);
+                case "setLore":
+                    lore = args[0] == null ? null : new ArrayList<>();
+                    if (lore != null) {
+                        for (Object line : (List<?>) args[0]) {
+                            lore.add(String.valueOf(line));
+                        }
+                    }
+                    return null;
+                case "hasCustomModelData":
+                    return customModelData != null;
+                case "getCustomModelData":
+                    if (customModelData == null) throw new IllegalStateException("We don't have CustomModelData! Check hasCustomModelData first!");
+                    return customModelData;
+                case "setCustomModelData":
+                    customModelData = (Integer) args[0];
+                    return null;
+                case "addItemFlags":
+                    flags.addAll(Arrays.asList((ItemFlag[]) args[0]));
+                    return null;
+                case "removeItemFlags":
+                    flags.removeAll(Arrays.asList((ItemFlag[]) args[0]));
+                    return null;
+                case "getItemFlags":
+                    return Collections.unmodifiableSet(flags.isEmpty() ? EnumSet.noneOf(ItemFlag.class) : EnumSet.copyOf(flags));
+                case "hasItemFlag":
+                    return flags.contains((ItemFlag) args[0]);
+                case "clone":
+                    return copy().meta;
+                case "serialize":
+                    return serialize();
+                default:
+                    return Fakes.defaultValue(method);
+            }
+        }
+
+        private Meta copy() {
+            Meta copy = new Meta();
+            copy.displayName = displayName;
+            copy.lore = lore == null ? null : new ArrayList<>(lore);
+            copy.customModelData = customModelData;
+            copy.flags.addAll(flags);
+            return copy;
+        }
+
+        private Map<String, Object> serialize() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("meta-type", "UNSPECIFIC");
+            if (displayName != null) map.put("display-name", displayName);
+            if (lore != null) map.put("lore", new ArrayList<>(lore));
+            if (customModelData != null) map.put("custom-model-data", customModelData);
+            if (!flags.isEmpty()) {
+                List<String> names = new ArrayList<>();
+                for (ItemFlag flag : flags) {
+                    names.add(flag.name());
+                }
+                map.put("ItemFlags", names);
+            }
+            return map;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) return true;
+            if (!(object instanceof Meta)) return false;
+            Meta other = (Meta) object;
+            return Objects.equals(displayName, other.displayName) && Objects.equals(lore, other.lore)
+                    && Objects.equals(customModelData, other.customModelData) && flags.equals(other.flags);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(displayName, lore, customModelData, flags);
+        }
+
+        @Override
+        public String toString() {
+            return "UNSPECIFIC_META:" + serialize();
+        }
+    }
+}
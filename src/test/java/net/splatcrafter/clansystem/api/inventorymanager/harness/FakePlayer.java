@@ -0,0 +1,203 @@
+package net.splatcrafter.clansystem.api.inventorymanager.harness;
+
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.event.inventory.InventoryType.SlotType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.plugin.PluginManager;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.UUID;
+
+/**
+ * This class is a {@link Player} of the {@link FakeServer}.
+ * Like the server, opening an inventory closes the open inventory first and calls an {@link InventoryCloseEvent},
+ * and a player without an open inventory looks at the crafting view of the player inventory.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+final class FakePlayer implements InvocationHandler {
+
+    private final Server server;
+    private final PluginManager pluginManager;
+    private final UUID uuid;
+    private final String name;
+    private final Player player;
+    private final PlayerInventory inventory;
+    private final InventoryView craftingView;
+    private InventoryView openView;
+    private volatile boolean online;
+
+    FakePlayer(Server server, PluginManager pluginManager, UUID uuid, String name) {
+        this.server = server;
+        this.pluginManager = pluginManager;
+        this.uuid = uuid;
+        this.name = name;
+        this.player = Fakes.proxy(Player.class, this);
+        this.inventory = FakeInventory.player(player);
+        this.craftingView = new View(FakeInventory.of(player, InventoryType.CRAFTING), "Crafting").view;
+        this.openView = craftingView;
+        this.online = true;
+    }
+
+    Player getPlayer() {
+        return player;
+    }
+
+    void disconnect() {
+        online = false;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        Object result = Fakes.objectMethod(proxy, method, args, this);
+        if (result != Fakes.UNHANDLED) return result;
+        switch (method.getName()) {
+            case "getUniqueId":
+                return uuid;
+            case "getName":
+            case "getDisplayName":
+            case "getPlayerListName":
+                return name;
+            case "getServer":
+                return server;
+            case "getInventory":
+                return inventory;
+            case "getOpenInventory":
+                return openView;
+            case "openInventory":
+                return args[0] instanceof Inventory ? openInventory((Inventory) args[0]) : null;
+            case "closeInventory":
+                closeInventory();
+                return null;
+            case "getItemOnCursor":
+                return openView.getCursor();
+            case "setItemOnCursor":
+                openView.setCursor((ItemStack) args[0]);
+                return null;
+            case "isOnline":
+            case "isValid":
+                return online;
+            case "hasPermission":
+                return true;
+            default:
+                return Fakes.defaultValue(method);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FakePlayer{name=" + name + '}';
+    }
+
+    private InventoryView openInventory(Inventory top) {
+        closeInventory();
+        openView = new View(top, "Chest").view;
+        FakeInventory.viewers(top).add(player);
+        return openView;
+    }
+
+    private void closeInventory() {
+        if (openView == craftingView) return;
+        InventoryView view = openView;
+        pluginManager.callEvent(new InventoryCloseEvent(view));
+        FakeInventory.viewers(view.getTopInventory()).remove(player);
+        openView = craftingView;
+    }
+
+    private final class View implements InvocationHandler {
+
+        private final InventoryView view;
+        private final Inventory top;
+        private final String title;
+        private ItemStack cursor;
+
+        private View(Inventory top, String title) {
+            this.top = top;
+            this.title = title;
+            this.view = Fakes.proxy(InventoryView.class, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            Object result = Fakes.objectMethod(proxy, method, args, this);
+            if (result != Fakes.UNHANDLED) return result;
+            switch (method.getName()) {
+                case "getTopInventory":
+                    return top;
+                case "getBottomInventory":
+                    return inventory;
+                case "getPlayer":
+                    return player;
+                case "getType":
+                    return top.getType();
+                case "getTitle":
+                case "getOriginalTitle":
+                    return title;
+                case "countSlots":
+                    return top.getSize() + 36;
+                case "convertSlot":
+                    return convertSlot((Integer) args[0]);
+                case "getSlotType":
+                    return slotType((Integer) args[0]);
+                case "getInventory":
+                    int rawSlot = (Integer) args[0];
+                    if (rawSlot < 0) return null;
+                    return rawSlot < top.getSize() ? top : inventory;
+                case "getItem":
+                    return getItem((Integer) args[0]);
+                case "setItem":
+                    setItem((Integer) args[0], (ItemStack) args[1]);
+                    return null;
+                case "getCursor":
+                    return cursor;
+                case "setCursor":
+                    cursor = (ItemStack) args[0];
+                    return null;
+                case "close":
+                    closeInventory();
+                    return null;
+                default:
+                    return Fakes.defaultValue(method);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "View{" + title + " of " + name + '}';
+        }
+
+        private int convertSlot(int rawSlot) {
+            if (rawSlot < top.getSize()) return rawSlot;
+            int slot = rawSlot - top.getSize();
+            return slot < 27 ? slot + 9 : slot - 27;
+        }
+
+        private SlotType slotType(int rawSlot) {
+            if (rawSlot < 0) return SlotType.OUTSIDE;
+            if (rawSlot < top.getSize()) return SlotType.CONTAINER;
+            return rawSlot - top.getSize() < 27 ? SlotType.CONTAINER : SlotType.QUICKBAR;
+        }
+
+        private ItemStack getItem(int rawSlot) {
+            if (rawSlot < 0) return null;
+            return rawSlot < top.getSize() ? top.getItem(rawSlot) : inventory.getItem(convertSlot(rawSlot));
+        }
+
+        private void setItem(int rawSlot, ItemStack itemStack) {
+            if (rawSlot < 0) return;
+            if (rawSlot < top.getSize()) {
+                top.setItem(rawSlot, itemStack);
+            } else {
+                inventory.setItem(convertSlot(rawSlot), itemStack);
+            }
+        }
+    }
+}
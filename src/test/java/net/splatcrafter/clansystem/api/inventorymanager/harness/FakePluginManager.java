@@ -0,0 +1,114 @@
+package net.splatcrafter.clansystem.api.inventorymanager.harness;
+
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class is the {@link PluginManager} of the {@link FakeServer}.
+ * It calls the {@link EventHandler} methods of the registered {@link Listener}s in the order of their {@link EventPriority}
+ * and skips handlers that ignore cancelled events, like the server does.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+final class FakePluginManager implements InvocationHandler {
+
+    private final Logger logger;
+    private final PluginManager pluginManager;
+    private volatile List<Registration> registrations;
+
+    FakePluginManager(Logger logger) {
+        this.logger = logger;
+        this.pluginManager = Fakes.proxy(PluginManager.class, this);
+        this.registrations = new ArrayList<>();
+    }
+
+    PluginManager getPluginManager() {
+        return pluginManager;
+    }
+
+    void unregisterAll() {
+        registrations = new ArrayList<>();
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        Object result = Fakes.objectMethod(proxy, method, args, this);
+        if (result != Fakes.UNHANDLED) return result;
+        switch (method.getName()) {
+            case "registerEvents":
+                registerEvents((Listener) args[0], (Plugin) args[1]);
+                return null;
+            case "callEvent":
+                callEvent((Event) args[0]);
+                return null;
+            case "isPluginEnabled":
+                return args[0] instanceof Plugin && ((Plugin) args[0]).isEnabled();
+            default:
+                return Fakes.defaultValue(method);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FakePluginManager";
+    }
+
+    private synchronized void registerEvents(Listener listener, Plugin plugin) {
+        List<Registration> copy = new ArrayList<>(registrations);
+        for (Method method : listener.getClass().getMethods()) {
+            EventHandler eventHandler = method.getAnnotation(EventHandler.class);
+            if (eventHandler == null || method.getParameterCount() != 1 || !Event.class.isAssignableFrom(method.getParameterTypes()[0])) continue;
+            copy.add(new Registration(listener, plugin, method, eventHandler));
+        }
+        copy.sort(Comparator.comparingInt(registration -> registration.priority.ordinal()));
+        registrations = copy;
+    }
+
+    private void callEvent(Event event) {
+        for (Registration registration : registrations) {
+            if (!registration.eventClass.isInstance(event)) continue;
+            if (registration.ignoreCancelled && event instanceof Cancellable && ((Cancellable) event).isCancelled()) continue;
+            try {
+                registration.method.invoke(registration.listener, event);
+            } catch (InvocationTargetException exception) {
+                logger.log(Level.SEVERE, "Could not pass event " + event.getEventName() + " to " + registration.plugin.getName(), exception.getCause());
+            } catch (IllegalAccessException exception) {
+                throw new IllegalStateException(exception);
+            }
+        }
+    }
+
+    private static final class Registration {
+
+        private final Listener listener;
+        private final Plugin plugin;
+        private final Method method;
+        private final Class<?> eventClass;
+        private final EventPriority priority;
+        private final boolean ignoreCancelled;
+
+        private Registration(Listener listener, Plugin plugin, Method method, EventHandler eventHandler) {
+            this.listener = listener;
+            this.plugin = plugin;
+            this.method = method;
+            this.eventClass = method.getParameterTypes()[0];
+            this.priority = eventHandler.priority();
+            this.ignoreCancelled = eventHandler.ignoreCancelled();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package net.splatcrafter.clansystem.api.inventorymanager.harness;
+
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class is the {@link BukkitScheduler} of the {@link FakeServer}.
+ * Sync tasks only run when the harness calls {@link #tick()}, so a benchmark decides when a tick happens.
+ * Tasks can be scheduled from any thread, async tasks run on a cached thread pool.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+final class FakeScheduler implements InvocationHandler {
+
+    private final Logger logger;
+    private final BukkitScheduler scheduler;
+    private final Queue<Task> incoming;
+    private final PriorityQueue<Task> queue;
+    private final Map<Integer, Task> tasks;
+    private final AtomicInteger nextId;
+    private final ExecutorService asyncPool;
+    private long currentTick;
+
+    FakeScheduler(Logger logger) {
+        this.logger = logger;
+        this.scheduler = Fakes.proxy(BukkitScheduler.class, this);
+        this.incoming = new ConcurrentLinkedQueue<>();
+        this.queue = new PriorityQueue<>((first, second) -> first.nextTick != second.nextTick
+                ? Long.compare(first.nextTick, second.nextTick) : Integer.compare(first.id, second.id));
+        this.tasks = new ConcurrentHashMap<>();
+        this.nextId = new AtomicInteger();
+        this.asyncPool = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "FakeServer-Async");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    BukkitScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Runs all sync tasks that are due in the next tick on the calling thread.
+     */
+    void tick() {
+        currentTick++;
+        drainIncoming();
+        while (!queue.isEmpty() && queue.peek().nextTick <= currentTick) {
+            Task task = queue.poll();
+            if (task.cancelled) continue;
+            try {
+                task.runnable.run();
+            } catch (Throwable throwable) {
+                logger.log(Level.WARNING, "Task #" + task.id + " generated an exception", throwable);
+            }
+            if (task.period > 0 && !task.cancelled) {
+                task.nextTick = currentTick + task.period;
+                queue.add(task);
+            } else {
+                tasks.remove(task.id);
+            }
+        }
+    }
+
+    int getPendingTaskCount() {
+        return tasks.size();
+    }
+
+    void cancelAll() {
+        for (Task task : tasks.values()) {
+            task.cancelled = true;
+        }
+        tasks.clear();
+        incoming.clear();
+        queue.clear();
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        Object result = Fakes.objectMethod(proxy, method, args, this);
+        if (result != Fakes.UNHANDLED) return result;
+        switch (method.getName()) {
+            case "runTask":
+                return schedule((Plugin) args[0], (Runnable) args[1], 1, 0);
+            case "runTaskLater":
+                return schedule((Plugin) args[0], (Runnable) args[1], (Long) args[2], 0);
+            case "runTaskTimer":
+                return schedule((Plugin) args[0], (Runnable) args[1], (Long) args[2], (Long) args[3]);
+            case "runTaskAsynchronously":
+                Task task = new Task(nextId.incrementAndGet(), (Plugin) args[0], (Runnable) args[1], 0, false);
+                tasks.put(task.id, task);
+                asyncPool.execute(() -> {
+                    if (!task.cancelled) task.runnable.run();
+                    tasks.remove(task.id);
+                });
+                return task.handle;
+            case "cancelTask":
+                Task cancelled = tasks.remove((Integer) args[0]);
+                if (cancelled != null) cancelled.cancelled = true;
+                return null;
+            case "cancelTasks":
+                tasks.values().removeIf(each -> {
+                    if (each.owner != args[0]) return false;
+                    each.cancelled = true;
+                    return true;
+                });
+                return null;
+            case "isCurrentlyRunning":
+            case "isQueued":
+                Task queued = tasks.get((Integer) args[0]);
+                return queued != null && !queued.cancelled;
+            default:
+                return Fakes.defaultValue(method);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FakeScheduler";
+    }
+
+    private BukkitTask schedule(Plugin plugin, Runnable runnable, long delay, long period) {
+        Task task = new Task(nextId.incrementAndGet(), plugin, runnable, period, true);
+        task.nextTick = Math.max(1, delay);
+        tasks.put(task.id, task);
+        incoming.add(task);
+        return task.handle;
+    }
+
+    private void drainIncoming() {
+        Task task;
+        while ((task = incoming.poll()) != null) {
+            task.nextTick += currentTick - 1;
+            queue.add(task);
+        }
+    }
+
+    private final class Task implements InvocationHandler {
+
+        private final int id;
+        private final Plugin owner;
+        private final Runnable runnable;
+        private final long period;
+        private final boolean sync;
+        private final BukkitTask handle;
+        private volatile boolean cancelled;
+        private long nextTick;
+
+        private Task(int id, Plugin owner, Runnable runnable, long period, boolean sync) {
+            this.id = id;
+            this.owner = owner;
+            this.runnable = runnable;
+            this.period = period;
+            this.sync = sync;
+            this.handle = Fakes.proxy(BukkitTask.class, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            Object result = Fakes.objectMethod(proxy, method, args, this);
+            if (result != Fakes.UNHANDLED) return result;
+            switch (method.getName()) {
+                case "getTaskId":
+                    return id;
+                case "getOwner":
+                    return owner;
+                case "isSync":
+                    return sync;
+                case "isCancelled":
+                    return cancelled;
+                case "cancel":
+                    cancelled = true;
+                    tasks.remove(id);
+                    return null;
+                default:
+                    return Fakes.defaultValue(method);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Task #" + id;
+        }
+    }
+}
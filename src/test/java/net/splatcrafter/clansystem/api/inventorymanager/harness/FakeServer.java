@@ -0,0 +1,349 @@
+package net.splatcrafter.clansystem.api.inventorymanager.harness;
+
+import de.splatcrafter.clansystem.ClanSystem;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.UnsafeValues;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.event.player.PlayerKickEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.InventoryView;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.java.JavaPluginLoader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * This class is an in-memory stand-in for the Bukkit server, so the InventoryAPI can be driven by tests and benchmarks
+ * through its real listeners without a Minecraft server.
+ * The server, its players, inventories, scheduler and events are {@link java.lang.reflect.Proxy}s of the Bukkit interfaces.
+ * Events are passed to the registered listeners like on a server, but clicks and drags do not move items.
+ * <br>
+ * Bukkit only accepts one server per JVM, so {@link #start()} always returns the same server.
+ * Call {@link #reset()} after {@link net.splatcrafter.clansystem.api.inventorymanager.InventoryApiRegister#shutdown()}
+ * to start the next run with a clean server.
+ * <pre>{@code
+ * FakeServer server = FakeServer.start();
+ * new InventoryApiRegister(server.enablePlugin());
+ * Player player = server.join("Splatcrafter");
+ * new InventoryManager(player, 27, "Menu", true).setItem(customItem);
+ * server.click(player, 13);
+ * server.tick();
+ * InventoryApiRegister.shutdown();
+ * server.reset();
+ * }</pre>
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+public final class FakeServer implements InvocationHandler {
+
+    private static FakeServer instance;
+
+    private final Logger logger;
+    private final Server server;
+    private final FakeScheduler scheduler;
+    private final FakePluginManager pluginManager;
+    private final FakeItemFactory itemFactory;
+    private final UnsafeValues unsafe;
+    private final Map<UUID, FakePlayer> players;
+    private volatile Thread mainThread;
+    private HarnessPlugin plugin;
+    private Path dataFolder;
+
+    private FakeServer() {
+        this.logger = Logger.getLogger("FakeServer");
+        this.server = Fakes.proxy(Server.class, this);
+        this.scheduler = new FakeScheduler(logger);
+        this.pluginManager = new FakePluginManager(logger);
+        this.itemFactory = new FakeItemFactory();
+        this.unsafe = Fakes.proxy(UnsafeValues.class, (proxy, method, args) -> {
+            Object result = Fakes.objectMethod(proxy, method, args, this);
+            if (result != Fakes.UNHANDLED) return result;
+            return method.getName().equals("getDataVersion") ? 4189 : Fakes.defaultValue(method);
+        });
+        this.players = new ConcurrentHashMap<>();
+        this.mainThread = Thread.currentThread();
+    }
+
+    /**
+     * Returns the server and sets it as the server of {@link Bukkit} on the first call.
+     * The calling thread becomes the main thread of the server.
+     *
+     * @return The server.
+     */
+    public static synchronized FakeServer start() {
+        if (instance == null) {
+            instance = new FakeServer();
+            Bukkit.setServer(instance.server);
+        }
+        instance.claimMainThread();
+        return instance;
+    }
+
+    /**
+     * Makes the calling thread the main thread of the server, for example the thread of a benchmark.
+     */
+    public void claimMainThread() {
+        this.mainThread = Thread.currentThread();
+    }
+
+    /**
+     * Creates and enables a new plugin with an empty data folder. A plugin that was enabled before is disabled.
+     *
+     * @return The plugin, which can be passed to the {@link net.splatcrafter.clansystem.api.inventorymanager.InventoryApiRegister}.
+     */
+    @SuppressWarnings("deprecation")
+    public ClanSystem enablePlugin() {
+        disablePlugin();
+        try {
+            dataFolder = Files.createTempDirectory("inventorymanager-harness");
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        plugin = new HarnessPlugin(new JavaPluginLoader(server), dataFolder.toFile());
+        plugin.enable();
+        return plugin;
+    }
+
+    /**
+     * Returns the data folder of the enabled plugin.
+     *
+     * @return The data folder.
+     */
+    public File getDataFolder() {
+        return dataFolder.toFile();
+    }
+
+    /**
+     * Lets a new player join the server.
+     *
+     * @param name The name of the player.
+     * @return The player.
+     */
+    public Player join(String name) {
+        UUID uuid = UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes(StandardCharsets.UTF_8));
+        FakePlayer fakePlayer = new FakePlayer(server, pluginManager.getPluginManager(), uuid, name);
+        players.put(uuid, fakePlayer);
+        return fakePlayer.getPlayer();
+    }
+
+    /**
+     * Lets the player leave the server. Like the server, the open inventory is closed before the {@link PlayerQuitEvent} is called.
+     *
+     * @param player The player who leaves.
+     */
+    public void quit(Player player) {
+        player.closeInventory();
+        callEvent(new PlayerQuitEvent(player, player.getName() + " left the game"));
+        disconnect(player);
+    }
+
+    /**
+     * Kicks the player from the server. If the {@link PlayerKickEvent} is not cancelled, the player leaves like in {@link #quit(Player)}.
+     *
+     * @param player The player who is kicked.
+     */
+    public void kick(Player player) {
+        PlayerKickEvent event = new PlayerKickEvent(player, "Kicked", player.getName() + " left the game");
+        callEvent(event);
+        if (!event.isCancelled()) quit(player);
+    }
+
+    /**
+     * Clicks with the left mouse button on a slot of the open inventory of the player.
+     *
+     * @param player  The player who clicks.
+     * @param rawSlot The raw slot of the open view.
+     * @return The event after all listeners were called.
+     */
+    public InventoryClickEvent click(Player player, int rawSlot) {
+        return click(player, rawSlot, ClickType.LEFT, InventoryAction.PICKUP_ALL);
+    }
+
+    /**
+     * Clicks on a slot of the open inventory of the player.
+     *
+     * @param player    The player who clicks.
+     * @param rawSlot   The raw slot of the open view.
+     * @param clickType The type of the click.
+     * @param action    The action of the click.
+     * @return The event after all listeners were called.
+     */
+    public InventoryClickEvent click(Player player, int rawSlot, ClickType clickType, InventoryAction action) {
+        InventoryView view = player.getOpenInventory();
+        InventoryClickEvent event = new InventoryClickEvent(view, view.getSlotType(rawSlot), rawSlot, clickType, action);
+        callEvent(event);
+        return event;
+    }
+
+    /**
+     * Drags items over slots of the open inventory of the player.
+     *
+     * @param player The player who drags.
+     * @param slots  The raw slots and the items that are placed in them.
+     * @return The event after all listeners were called.
+     */
+    public InventoryDragEvent drag(Player player, Map<Integer, ItemStack> slots) {
+        InventoryDragEvent event = new InventoryDragEvent(player.getOpenInventory(), null, new ItemStack(Material.STONE), false, slots);
+        callEvent(event);
+        return event;
+    }
+
+    /**
+     * Closes the open inventory of the player and calls an {@link org.bukkit.event.inventory.InventoryCloseEvent}.
+     *
+     * @param player The player who closes the inventory.
+     */
+    public void close(Player player) {
+        player.closeInventory();
+    }
+
+    /**
+     * Runs one tick of the scheduler on the calling thread.
+     */
+    public void tick() {
+        scheduler.tick();
+    }
+
+    /**
+     * Runs several ticks of the scheduler on the calling thread.
+     *
+     * @param ticks The number of ticks.
+     */
+    public void tick(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            scheduler.tick();
+        }
+    }
+
+    /**
+     * Returns the number of tasks that are scheduled and not cancelled.
+     *
+     * @return The number of pending tasks.
+     */
+    public int getPendingTaskCount() {
+        return scheduler.getPendingTaskCount();
+    }
+
+    /**
+     * Returns the number of players on the server.
+     *
+     * @return The number of players.
+     */
+    public int getOnlinePlayerCount() {
+        return players.size();
+    }
+
+    /**
+     * Removes all players, listeners and tasks and disables the plugin, so the next run starts with a clean server.
+     * The InventoryAPI must be shut down before.
+     */
+    public void reset() {
+        for (FakePlayer fakePlayer : players.values()) {
+            fakePlayer.disconnect();
+        }
+        players.clear();
+        scheduler.cancelAll();
+        pluginManager.unregisterAll();
+        disablePlugin();
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        Object result = Fakes.objectMethod(proxy, method, args, this);
+        if (result != Fakes.UNHANDLED) return result;
+        switch (method.getName()) {
+            case "getName":
+                return "FakeServer";
+            case "getVersion":
+            case "getBukkitVersion":
+                return "1.21.4-R0.1-SNAPSHOT";
+            case "getLogger":
+                return logger;
+            case "getOnlinePlayers":
+                ArrayList<Player> onlinePlayers = new ArrayList<>();
+                for (FakePlayer fakePlayer : players.values()) {
+                    onlinePlayers.add(fakePlayer.getPlayer());
+                }
+                return onlinePlayers;
+            case "getPlayer":
+                if (args[0] == null) throw new IllegalArgumentException("Player cannot be null");
+                if (args[0] instanceof UUID) {
+                    FakePlayer fakePlayer = players.get(args[0]);
+                    return fakePlayer == null ? null : fakePlayer.getPlayer();
+                }
+                for (FakePlayer fakePlayer : players.values()) {
+                    if (fakePlayer.getPlayer().getName().equalsIgnoreCase(String.valueOf(args[0]))) return fakePlayer.getPlayer();
+                }
+                return null;
+            case "getPluginManager":
+                return pluginManager.getPluginManager();
+            case "getScheduler":
+                return scheduler.getScheduler();
+            case "isPrimaryThread":
+                return Thread.currentThread() == mainThread;
+            case "createInventory":
+                InventoryHolder holder = (InventoryHolder) args[0];
+                if (args[1] instanceof InventoryType) return FakeInventory.of(holder, (InventoryType) args[1]);
+                return FakeInventory.chest(holder, (Integer) args[1]);
+            case "getItemFactory":
+                return itemFactory.getItemFactory();
+            case "getUnsafe":
+                return unsafe;
+            default:
+                return Fakes.defaultValue(method);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FakeServer";
+    }
+
+    private void callEvent(Event event) {
+        pluginManager.getPluginManager().callEvent(event);
+    }
+
+    private void disconnect(Player player) {
+        FakePlayer fakePlayer = players.remove(player.getUniqueId());
+        if (fakePlayer != null) fakePlayer.disconnect();
+    }
+
+    private void disablePlugin() {
+        if (plugin != null) {
+            plugin.disable();
+            plugin = null;
+        }
+        if (dataFolder != null) {
+            try (Stream<Path> paths = Files.walk(dataFolder)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            } catch (IOException exception) {
+                logger.warning("Could not delete " + dataFolder + ": " + exception);
+            }
+            dataFolder = null;
+        }
+    }
+}
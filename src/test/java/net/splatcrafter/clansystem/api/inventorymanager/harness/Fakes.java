@@ -0,0 +1,66 @@
+package net.splatcrafter.clansystem.api.inventorymanager.harness;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * This class creates the {@link Proxy}s of the harness.
+ * Methods of the Bukkit interfaces that a fake does not implement return a neutral value,
+ * so the fakes keep working when the Bukkit API adds methods.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+final class Fakes {
+
+    private Fakes() {
+    }
+
+    static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(Fakes.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    /**
+     * Handles the methods of {@link Object} with identity semantics. The proxy is described by its handler.
+     *
+     * @return The result or {@link #UNHANDLED} if the method is not a method of {@link Object}.
+     */
+    static Object objectMethod(Object proxy, Method method, Object[] args, InvocationHandler handler) {
+        switch (method.getName()) {
+            case "equals":
+                return method.getParameterCount() == 1 ? proxy == args[0] : UNHANDLED;
+            case "hashCode":
+                return method.getParameterCount() == 0 ? System.identityHashCode(proxy) : UNHANDLED;
+            case "toString":
+                return method.getParameterCount() == 0 ? handler.toString() : UNHANDLED;
+            default:
+                return UNHANDLED;
+        }
+    }
+
+    static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == double.class) return 0D;
+        if (type == float.class) return 0F;
+        if (type == short.class) return (short) 0;
+        if (type == byte.class) return (byte) 0;
+        if (type == char.class) return (char) 0;
+        if (type == List.class || type == Collection.class) return Collections.emptyList();
+        if (type == Set.class) return Collections.emptySet();
+        if (type == Map.class) return Collections.emptyMap();
+        if (type == Optional.class) return Optional.empty();
+        return null;
+    }
+
+    static final Object UNHANDLED = new Object();
+}
@@ -0,0 +1,29 @@
+package net.splatcrafter.clansystem.api.inventorymanager.harness;
+
+import de.splatcrafter.clansystem.ClanSystem;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPluginLoader;
+
+import java.io.File;
+
+/**
+ * This class is the plugin that registers the InventoryAPI in the {@link FakeServer}.
+ *
+ * @author Splatcrafter
+ * @version 1.1.0
+ */
+final class HarnessPlugin extends ClanSystem {
+
+    HarnessPlugin(JavaPluginLoader loader, File dataFolder) {
+        super(loader, new PluginDescriptionFile("ClanSystem", "1.1.0", ClanSystem.class.getName()), dataFolder,
+                new File(dataFolder, "ClanSystem.jar"));
+    }
+
+    void enable() {
+        setEnabled(true);
+    }
+
+    void disable() {
+        setEnabled(false);
+    }
+}